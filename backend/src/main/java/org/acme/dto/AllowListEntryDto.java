@@ -1,9 +1,24 @@
 package org.acme.dto;
 
 import org.acme.entity.AllowListEntry;
+import org.acme.entity.User;
 import java.time.Instant;
 
 public record AllowListEntryDto(Long id, String email, String role, Instant createdAt) {
+
+    /**
+     * Read-only projection straight into this record. Alias: {@code e} entry.
+     */
+    public static final String SELECT = "SELECT new org.acme.dto.AllowListEntryDto(e.id, e.email, e.role, e.createdAt) "
+            + "FROM AllowListEntry e";
+
+    /**
+     * Constructor expression target of {@link #SELECT}.
+     */
+    public AllowListEntryDto(Long id, String email, User.Role role, Instant createdAt) {
+        this(id, email, role.name(), createdAt);
+    }
+
     public static AllowListEntryDto from(AllowListEntry e) {
         return new AllowListEntryDto(e.id, e.email, e.role.name(), e.createdAt);
     }
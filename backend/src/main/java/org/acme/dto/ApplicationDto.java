@@ -9,6 +9,25 @@ public record ApplicationDto(
         String message, String status,
         Instant createdAt, Instant updatedAt) {
 
+    /**
+     * Read-only projection straight into this record. Aliases: {@code a} application, {@code p} project, {@code s} student.
+     */
+    public static final String SELECT = "SELECT new org.acme.dto.ApplicationDto(a.id, p.id, p.title, "
+            + "s.id, s.name, s.email, a.message, a.status, a.createdAt, a.updatedAt) "
+            + "FROM Application a JOIN a.project p JOIN a.student s";
+
+    /**
+     * Constructor expression target of {@link #SELECT}.
+     */
+    public ApplicationDto(
+            Long id, Long projectId, String projectTitle,
+            Long studentId, String studentName, String studentEmail,
+            String message, Application.Status status,
+            Instant createdAt, Instant updatedAt) {
+        this(id, projectId, projectTitle, studentId, studentName, studentEmail,
+                message, status.name(), createdAt, updatedAt);
+    }
+
     public static ApplicationDto from(Application a) {
         return new ApplicationDto(
                 a.id, a.project.id, a.project.title,
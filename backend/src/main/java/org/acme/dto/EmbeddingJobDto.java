@@ -0,0 +1,23 @@
+package org.acme.dto;
+
+import org.acme.entity.EmbeddingJob;
+import java.time.Instant;
+
+/**
+ * Re-embedding job progress. Throughput (projects per second) and ETA (seconds) are only
+ * known while the job runs in this instance, otherwise they are null.
+ */
+public record EmbeddingJobDto(
+        Long id, String status, int total, int processed, int failed, long lastProjectId,
+        Double throughput, Long etaSeconds, String error,
+        Instant createdAt, Instant updatedAt, Instant finishedAt
+) {
+    public static EmbeddingJobDto from(EmbeddingJob j, Double throughput) {
+        Long eta = null;
+        if (throughput != null && throughput > 0) {
+            eta = (long) Math.ceil(Math.max(0, j.total - j.processed - j.failed) / throughput);
+        }
+        return new EmbeddingJobDto(j.id, j.status.name(), j.total, j.processed, j.failed, j.lastProjectId,
+                throughput, eta, j.error, j.createdAt, j.updatedAt, j.finishedAt);
+    }
+}
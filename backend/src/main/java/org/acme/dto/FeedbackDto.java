@@ -8,6 +8,24 @@ public record FeedbackDto(
         Long mentorId, String mentorName,
         String type, int rating, String comment, Instant createdAt) {
 
+    /**
+     * Read-only projection straight into this record.
+     * Aliases: {@code f} feedback, {@code p} project, {@code s} student, {@code m} mentor.
+     */
+    public static final String SELECT = "SELECT new org.acme.dto.FeedbackDto(f.id, p.id, s.id, s.name, m.id, m.name, "
+            + "f.type, f.rating, f.comment, f.createdAt) "
+            + "FROM Feedback f JOIN f.project p JOIN f.student s JOIN f.mentor m";
+
+    /**
+     * Constructor expression target of {@link #SELECT}.
+     */
+    public FeedbackDto(
+            Long id, Long projectId, Long studentId, String studentName,
+            Long mentorId, String mentorName,
+            Feedback.Type type, int rating, String comment, Instant createdAt) {
+        this(id, projectId, studentId, studentName, mentorId, mentorName, type.name(), rating, comment, createdAt);
+    }
+
     public static FeedbackDto from(Feedback f) {
         return new FeedbackDto(
                 f.id, f.project.id, f.student.id, f.student.name,
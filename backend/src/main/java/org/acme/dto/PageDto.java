@@ -1,5 +1,18 @@
 package org.acme.dto;
 
 import java.util.List;
+import java.util.Map;
 
-public record PageDto<T>(List<T> items, long total, int page, int size) {}
+/**
+ * One page of results. {@code degraded} is set when a hybrid search had to drop its semantic leg.
+ * {@code facets} holds per-facet value counts when the page was served by the facet index, otherwise null.
+ * {@code total} is null when the client did not ask for it; {@code nextCursor} is set in cursor mode
+ * while more results follow.
+ */
+public record PageDto<T>(List<T> items, Long total, int page, int size, boolean degraded,
+                         Map<String, Map<String, Integer>> facets, String nextCursor) {
+
+    public PageDto(List<T> items, long total, int page, int size) {
+        this(items, total, page, size, false, null, null);
+    }
+}
@@ -11,6 +11,36 @@ public record ProjectDto(
         String responsibilityBoundaries, String contactPolicy,
         String status, Instant createdAt, Instant updatedAt) {
 
+    /**
+     * Constructor expression over alias {@code p}. The mentor is reached by implicit join, so catalog
+     * predicates may keep using unqualified project attributes next to it.
+     */
+    public static final String NEW = "new org.acme.dto.ProjectDto(p.id, p.mentor.id, p.mentor.name, p.mentor.email, "
+            + "p.title, p.goal, p.keyTasks, p.valueText, p.requiredSkills, p.difficulty, p.tags, p.curriculumMatch, "
+            + "p.thesisOk, p.practiceOk, p.courseworkOk, p.responsibilityBoundaries, p.contactPolicy, "
+            + "p.status, p.createdAt, p.updatedAt)";
+
+    /**
+     * Read-only projection straight into this record, joining only the mentor columns it needs;
+     * nothing enters the persistence context.
+     */
+    public static final String SELECT = "SELECT " + NEW + " FROM Project p";
+
+    /**
+     * Constructor expression target of {@link #NEW}.
+     */
+    public ProjectDto(
+            Long id, Long mentorId, String mentorName, String mentorEmail,
+            String title, String goal, String keyTasks, String valueText,
+            String requiredSkills, Project.Difficulty difficulty, String tags, String curriculumMatch,
+            boolean thesisOk, boolean practiceOk, boolean courseworkOk,
+            String responsibilityBoundaries, String contactPolicy,
+            Project.Status status, Instant createdAt, Instant updatedAt) {
+        this(id, mentorId, mentorName, mentorEmail, title, goal, keyTasks, valueText,
+                requiredSkills, difficulty.name(), tags, curriculumMatch, thesisOk, practiceOk, courseworkOk,
+                responsibilityBoundaries, contactPolicy, status.name(), createdAt, updatedAt);
+    }
+
     public static ProjectDto from(Project p) {
         return new ProjectDto(
                 p.id, p.mentor.id, p.mentor.name, p.mentor.email,
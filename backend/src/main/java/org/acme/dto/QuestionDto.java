@@ -9,6 +9,26 @@ public record QuestionDto(
         String visibility, String text, Instant createdAt,
         AnswerDto answer) {
 
+    /**
+     * Read-only projection straight into this record, with the answer (if any) in the same row.
+     * Aliases: {@code q} question, {@code p} project, {@code u} author, {@code a} answer, {@code r} responder.
+     */
+    public static final String SELECT = "SELECT new org.acme.dto.QuestionDto(q.id, p.id, u.id, u.name, "
+            + "q.visibility, q.text, q.createdAt, a.id, r.id, r.name, a.text, a.createdAt) "
+            + "FROM Question q JOIN q.project p JOIN q.author u "
+            + "LEFT JOIN Answer a ON a.question = q LEFT JOIN a.responder r";
+
+    /**
+     * Constructor expression target of {@link #SELECT}; answer columns are null for an unanswered question.
+     */
+    public QuestionDto(
+            Long id, Long projectId, Long authorId, String authorName,
+            Question.Visibility visibility, String text, Instant createdAt,
+            Long answerId, Long responderId, String responderName, String answerText, Instant answeredAt) {
+        this(id, projectId, authorId, authorName, visibility.name(), text, createdAt,
+                answerId != null ? new AnswerDto(answerId, responderId, responderName, answerText, answeredAt) : null);
+    }
+
     public static QuestionDto from(Question q, Answer a) {
         return new QuestionDto(
                 q.id, q.project.id, q.author.id, q.author.name,
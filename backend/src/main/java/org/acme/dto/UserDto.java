@@ -4,6 +4,19 @@ import org.acme.entity.User;
 import java.time.Instant;
 
 public record UserDto(Long id, String email, String name, String role, Instant createdAt) {
+
+    /**
+     * Read-only projection straight into this record. Alias: {@code u} user.
+     */
+    public static final String SELECT = "SELECT new org.acme.dto.UserDto(u.id, u.email, u.name, u.role, u.createdAt) FROM User u";
+
+    /**
+     * Constructor expression target of {@link #SELECT}.
+     */
+    public UserDto(Long id, String email, String name, User.Role role, Instant createdAt) {
+        this(id, email, name, role.name(), createdAt);
+    }
+
     public static UserDto from(User u) {
         return new UserDto(u.id, u.email, u.name, u.role.name(), u.createdAt);
     }
@@ -0,0 +1,72 @@
+package org.acme.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.List;
+
+@Entity
+@Table(name = "embedding_jobs")
+public class EmbeddingJob extends PanacheEntityBase {
+
+    public enum Status { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    public Status status;
+
+    @Column(nullable = false)
+    public int total;
+
+    @Column(nullable = false)
+    public int processed;
+
+    @Column(nullable = false)
+    public int failed;
+
+    // Keyset checkpoint: every project with a smaller or equal id has been handled
+    @Column(name = "last_project_id", nullable = false)
+    public long lastProjectId;
+
+    @Column(columnDefinition = "TEXT")
+    public String error;
+
+    // Node running the job; it must renew lease_until at every checkpoint or another node may take over
+    @Column(length = 128)
+    public String owner;
+
+    @Column(name = "lease_until")
+    public Instant leaseUntil;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    public Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    public Instant updatedAt;
+
+    @Column(name = "finished_at")
+    public Instant finishedAt;
+
+    @PrePersist
+    void onCreate() {
+        createdAt = updatedAt = Instant.now();
+        if (status == null) status = Status.RUNNING;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    public static List<EmbeddingJob> findRunning() {
+        return list("status", Status.RUNNING);
+    }
+
+    public static List<EmbeddingJob> findRecent(int limit) {
+        return find("ORDER BY id DESC").page(0, limit).list();
+    }
+}
@@ -17,7 +17,7 @@ public class Project extends PanacheEntityBase {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     public Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "mentor_id", nullable = false)
     public User mentor;
 
@@ -71,10 +71,27 @@ public class Project extends PanacheEntityBase {
     @Column(name = "updated_at", nullable = false)
     public Instant updatedAt;
 
-    @Column(name = "embedding", columnDefinition = "vector(1024)")
-    @JdbcTypeCode(SqlTypes.OTHER)
-    @Convert(converter = VectorConverter.class)
-    public String embedding;  // Stored as pgvector string format: [0.1, 0.2, ...]
+    // Lazy so ordinary project reads don't fetch 4 KB per row; only the search subsystem touches it
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "embedding_bin")
+    @Convert(converter = VectorBinaryConverter.class)
+    public float[] embedding;  // Stored in pgvector binary format; the vector column is derived by trigger
+
+    // Fingerprint of the embedded text and the model that produced the embedding; written by the embedding pipeline only
+    @Column(name = "embedding_hash", length = 64, insertable = false, updatable = false)
+    public String embeddingHash;
+
+    @Column(name = "embedding_model", length = 100, insertable = false, updatable = false)
+    public String embeddingModel;
+
+    // Normalized tags and required skills (see TermList), generated by the database from the text columns
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "tag_list", insertable = false, updatable = false)
+    public String[] tagList;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "skill_list", insertable = false, updatable = false)
+    public String[] skillList;
 
     @PrePersist
     void onCreate() {
@@ -87,4 +104,11 @@ public class Project extends PanacheEntityBase {
     void onUpdate() {
         updatedAt = Instant.now();
     }
+
+    /**
+     * Project with its mentor in one statement, for responses that map the mentor's name and email.
+     */
+    public static Project findWithMentor(Long id) {
+        return find("FROM Project p JOIN FETCH p.mentor WHERE p.id = ?1", id).firstResult();
+    }
 }
@@ -0,0 +1,26 @@
+package org.acme.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.acme.util.VectorUtils;
+
+/**
+ * Hibernate converter between a float array and pgvector's binary send format stored in a bytea column.
+ * Avoids formatting and parsing the decimal text representation of the vector.
+ */
+@Converter(autoApply = false)
+public class VectorBinaryConverter implements AttributeConverter<float[], byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(float[] attribute) {
+        return VectorUtils.toBinary(attribute);
+    }
+
+    @Override
+    public float[] convertToEntityAttribute(byte[] dbData) {
+        if (dbData == null) {
+            return null;
+        }
+        return VectorUtils.fromBinary(dbData);
+    }
+}
@@ -1,8 +1,8 @@
 package org.acme.event;
 
 /**
- * Event fired when a project is created or updated.
- * Used to trigger embedding generation after transaction commits.
+ * Event fired when a project is created, updated or changes lifecycle state.
+ * Used to trigger embedding generation and keep in-memory indexes in sync after transaction commits.
  */
 public class ProjectEvent {
 
@@ -11,7 +11,10 @@ public class ProjectEvent {
 
     public enum EventType {
         CREATED,
-        UPDATED
+        UPDATED,
+        PUBLISHED,
+        ARCHIVED,
+        DELETED
     }
 
     public ProjectEvent(Long projectId, EventType type) {
@@ -26,4 +29,11 @@ public class ProjectEvent {
     public EventType getType() {
         return type;
     }
+
+    /**
+     * Whether this event changes the text that goes into the project embedding.
+     */
+    public boolean affectsContent() {
+        return type == EventType.CREATED || type == EventType.UPDATED;
+    }
 }
@@ -0,0 +1,29 @@
+package org.acme.event;
+
+/**
+ * Event fired when a user's name or role changes or the user is deleted.
+ * Used to drop the cached caller identity after transaction commits.
+ */
+public class UserEvent {
+
+    private final Long userId;
+    private final EventType type;
+
+    public enum EventType {
+        UPDATED,
+        DELETED
+    }
+
+    public UserEvent(Long userId, EventType type) {
+        this.userId = userId;
+        this.type = type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+}
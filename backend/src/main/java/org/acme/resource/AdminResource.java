@@ -3,6 +3,7 @@ package org.acme.resource;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
@@ -12,12 +13,15 @@ import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.acme.dto.AllowListEntryDto;
+import org.acme.dto.EmbeddingJobDto;
 import org.acme.dto.ErrorResponse;
 import org.acme.dto.ProjectDto;
 import org.acme.dto.UserDto;
 import org.acme.entity.*;
+import org.acme.event.ProjectEvent;
+import org.acme.event.UserEvent;
+import org.acme.service.CurrentUser;
 import org.acme.validation.ValidEnum;
-import org.eclipse.microprofile.jwt.JsonWebToken;
 
 import java.util.List;
 
@@ -28,15 +32,28 @@ import java.util.List;
 @RunOnVirtualThread
 public class AdminResource {
 
-    @Inject JsonWebToken jwt;
+    @Inject CurrentUser currentUser;
+    @Inject EntityManager em;
 
     @Inject
-    org.acme.service.ProjectSearchService searchService;
+    org.acme.service.EmbeddingJobService embeddingJobs;
+
+    @Inject
+    org.acme.service.QueryEmbeddingCache queryEmbeddingCache;
+
+    @Inject
+    jakarta.enterprise.inject.Instance<org.acme.service.MeteredCodec> cacheCodecs;
 
     @Inject
     @jakarta.inject.Named("virtualExecutor")
     java.util.concurrent.ExecutorService virtualExecutor;
 
+    @Inject
+    jakarta.enterprise.event.Event<ProjectEvent> projectEvent;
+
+    @Inject
+    jakarta.enterprise.event.Event<UserEvent> userEvent;
+
     public record ChangeRoleRequest(
             @NotNull(message = "role is required") @ValidEnum(enumClass = User.Role.class) String role) {}
 
@@ -49,8 +66,7 @@ public class AdminResource {
     @GET
     @Path("/users")
     public Response listUsers() {
-        List<User> users = User.listAll();
-        return Response.ok(users.stream().map(UserDto::from).toList()).build();
+        return Response.ok(em.createQuery(UserDto.SELECT, UserDto.class).getResultList()).build();
     }
 
     @PUT
@@ -60,6 +76,8 @@ public class AdminResource {
         User user = User.findById(userId);
         if (user == null) return Response.status(404).build();
         user.role = User.Role.valueOf(req.role());
+        // Drops the cached identity after commit, so the new role applies without a new token
+        userEvent.fire(new UserEvent(user.id, UserEvent.EventType.UPDATED));
         return Response.ok(UserDto.from(user)).build();
     }
 
@@ -67,8 +85,7 @@ public class AdminResource {
     @Path("/users/{id}")
     @Transactional
     public Response deleteUser(@PathParam("id") Long userId) {
-        Long callerId = Long.parseLong(jwt.getSubject());
-        if (callerId.equals(userId)) {
+        if (currentUser.id().equals(userId)) {
             return Response.status(400).entity(new ErrorResponse("Cannot delete yourself")).build();
         }
         User user = User.findById(userId);
@@ -92,6 +109,7 @@ public class AdminResource {
         }
 
         user.delete();
+        userEvent.fire(new UserEvent(userId, UserEvent.EventType.DELETED));
         return Response.noContent().build();
     }
 
@@ -100,17 +118,17 @@ public class AdminResource {
     @GET
     @Path("/projects")
     public Response listAllProjects() {
-        List<Project> projects = Project.listAll();
-        return Response.ok(projects.stream().map(ProjectDto::from).toList()).build();
+        return Response.ok(em.createQuery(ProjectDto.SELECT, ProjectDto.class).getResultList()).build();
     }
 
     @POST
     @Path("/projects/{id}/archive")
     @Transactional
     public Response archiveProject(@PathParam("id") Long projectId) {
-        Project project = Project.findById(projectId);
+        Project project = Project.findWithMentor(projectId);
         if (project == null) return Response.status(404).build();
         project.status = Project.Status.ARCHIVED;
+        projectEvent.fire(new ProjectEvent(project.id, ProjectEvent.EventType.ARCHIVED));
         return Response.ok(ProjectDto.from(project)).build();
     }
 
@@ -127,16 +145,56 @@ public class AdminResource {
     @POST
     @Path("/projects/regenerate-embeddings")
     public Response regenerateAllEmbeddings() {
-        try {
-            searchService.regenerateAllEmbeddings();
-            return Response.ok(java.util.Map.of(
-                    "message", "Embedding regeneration completed successfully",
-                    "status", "completed"
-            )).build();
-        } catch (Exception e) {
-            org.jboss.logging.Logger.getLogger(AdminResource.class).errorf(e, "Failed to regenerate embeddings");
-            return Response.status(500).entity(new ErrorResponse("Failed to regenerate embeddings: " + e.getMessage())).build();
+        return Response.accepted(embeddingJobs.start()).build();
+    }
+
+    // ── Embedding jobs ─────────────────────────────────────────────
+
+    @GET
+    @Path("/embedding-jobs")
+    public Response listEmbeddingJobs() {
+        return Response.ok(embeddingJobs.recent()).build();
+    }
+
+    @GET
+    @Path("/embedding-jobs/{id}")
+    public Response getEmbeddingJob(@PathParam("id") Long jobId) {
+        EmbeddingJobDto job = embeddingJobs.find(jobId);
+        if (job == null) return Response.status(404).build();
+        return Response.ok(job).build();
+    }
+
+    @POST
+    @Path("/embedding-jobs/{id}/cancel")
+    public Response cancelEmbeddingJob(@PathParam("id") Long jobId) {
+        if (embeddingJobs.find(jobId) == null) return Response.status(404).build();
+        if (!embeddingJobs.cancel(jobId)) {
+            return Response.status(409).entity(new ErrorResponse("Job is not running")).build();
         }
+        return Response.ok(embeddingJobs.find(jobId)).build();
+    }
+
+    // ── Caches ─────────────────────────────────────────────────────
+
+    @GET
+    @Path("/cache/query-embeddings")
+    public Response queryEmbeddingCacheStats() {
+        return Response.ok(queryEmbeddingCache.stats()).build();
+    }
+
+    @GET
+    @Path("/cache/payloads")
+    public Response cachePayloads() {
+        java.util.Map<String, org.acme.service.MeteredCodec.PayloadStats> payloads = new java.util.TreeMap<>();
+        cacheCodecs.forEach(codec -> payloads.put(codec.name(), codec.payloadStats()));
+        return Response.ok(payloads).build();
+    }
+
+    @POST
+    @Path("/cache/query-embeddings/invalidate")
+    public Response invalidateQueryEmbeddingCache() {
+        queryEmbeddingCache.invalidateAll();
+        return Response.noContent().build();
     }
 
     // ── Questions ──────────────────────────────────────────────────
@@ -181,8 +239,7 @@ public class AdminResource {
     @GET
     @Path("/allow-list")
     public Response listAllowList() {
-        List<AllowListEntry> entries = AllowListEntry.listAll();
-        return Response.ok(entries.stream().map(AllowListEntryDto::from).toList()).build();
+        return Response.ok(em.createQuery(AllowListEntryDto.SELECT, AllowListEntryDto.class).getResultList()).build();
     }
 
     @POST
@@ -255,5 +312,6 @@ public class AdminResource {
         Feedback.delete("project.id", pid);
         // Delete project
         project.delete();
+        projectEvent.fire(new ProjectEvent(pid, ProjectEvent.EventType.DELETED));
     }
 }
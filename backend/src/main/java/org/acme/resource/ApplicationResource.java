@@ -3,6 +3,7 @@ package org.acme.resource;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
@@ -11,8 +12,8 @@ import org.acme.dto.ApplicationDto;
 import org.acme.dto.ErrorResponse;
 import org.acme.entity.Application;
 import org.acme.entity.Project;
-import org.acme.entity.User;
-import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.acme.service.CurrentUser;
+import org.acme.service.ProjectAclIndex;
 
 import java.util.List;
 
@@ -22,7 +23,9 @@ import java.util.List;
 @RunOnVirtualThread
 public class ApplicationResource {
 
-    @Inject JsonWebToken jwt;
+    @Inject CurrentUser currentUser;
+    @Inject ProjectAclIndex projectAcl;
+    @Inject EntityManager em;
 
     public record ApplyRequest(String message) {}
 
@@ -31,41 +34,41 @@ public class ApplicationResource {
     @RolesAllowed("STUDENT")
     @Transactional
     public Response apply(@PathParam("id") Long projectId, ApplyRequest req) {
-        User student = User.findById(Long.parseLong(jwt.getSubject()));
-        Project project = Project.findById(projectId);
+        ProjectAclIndex.Access project = projectAcl.findCurrent(projectId);
         if (project == null) return Response.status(404).build();
-        if (project.status != Project.Status.PUBLISHED) {
+        if (!project.isPublished()) {
             return Response.status(400).entity(new ErrorResponse("Project is not published")).build();
         }
 
         // Check duplicate
-        long existing = Application.count("project.id = ?1 AND student.id = ?2", projectId, student.id);
+        long existing = Application.count("project.id = ?1 AND student.id = ?2", projectId, currentUser.id());
         if (existing > 0) {
             return Response.status(409).entity(new ErrorResponse("You already applied to this project")).build();
         }
 
         Application app = new Application();
-        app.project = project;
-        app.student = student;
+        app.project = em.getReference(Project.class, projectId);
+        app.student = currentUser.reference();
         app.message = req != null ? req.message() : null;
         app.status = Application.Status.PENDING;
         app.persist();
-        return Response.status(201).entity(ApplicationDto.from(app)).build();
+        return Response.status(201).entity(findDto(app.id)).build();
     }
 
     @GET
     @Path("/projects/{id}/applications")
     @RolesAllowed({"MENTOR", "ADMIN"})
     public Response listForProject(@PathParam("id") Long projectId) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        Project project = Project.findById(projectId);
+        ProjectAclIndex.Access project = projectAcl.find(projectId);
         if (project == null) return Response.status(404).build();
-        if (currentUser.role != User.Role.ADMIN && !project.mentor.id.equals(currentUser.id)) {
+        if (!currentUser.isAdmin() && !project.isMentor(currentUser.id())) {
             return Response.status(403).build();
         }
 
-        List<Application> apps = Application.list("project.id", projectId);
-        return Response.ok(apps.stream().map(ApplicationDto::from).toList()).build();
+        List<ApplicationDto> apps = em.createQuery(ApplicationDto.SELECT + " WHERE p.id = ?1", ApplicationDto.class)
+                .setParameter(1, projectId)
+                .getResultList();
+        return Response.ok(apps).build();
     }
 
     @POST
@@ -88,19 +91,30 @@ public class ApplicationResource {
     @Path("/me/applications")
     @RolesAllowed("STUDENT")
     public Response myApplications() {
-        User student = User.findById(Long.parseLong(jwt.getSubject()));
-        List<Application> apps = Application.list("student.id", student.id);
-        return Response.ok(apps.stream().map(ApplicationDto::from).toList()).build();
+        List<ApplicationDto> apps = em.createQuery(ApplicationDto.SELECT + " WHERE s.id = ?1", ApplicationDto.class)
+                .setParameter(1, currentUser.id())
+                .getResultList();
+        return Response.ok(apps).build();
     }
 
     private Response updateStatus(Long appId, Application.Status newStatus) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
         Application app = Application.findById(appId);
         if (app == null) return Response.status(404).build();
-        if (currentUser.role != User.Role.ADMIN && !app.project.mentor.id.equals(currentUser.id)) {
+        // The project id comes from the unloaded proxy; ownership from the ACL index
+        ProjectAclIndex.Access project = projectAcl.findCurrent(app.project.id);
+        if (!currentUser.isAdmin() && (project == null || !project.isMentor(currentUser.id()))) {
             return Response.status(403).build();
         }
         app.status = newStatus;
-        return Response.ok(ApplicationDto.from(app)).build();
+        return Response.ok(findDto(appId)).build();
+    }
+
+    /**
+     * Response body read back by projection; the query flushes this transaction's changes first.
+     */
+    private ApplicationDto findDto(Long appId) {
+        return em.createQuery(ApplicationDto.SELECT + " WHERE a.id = ?1", ApplicationDto.class)
+                .setParameter(1, appId)
+                .getSingleResult();
     }
 }
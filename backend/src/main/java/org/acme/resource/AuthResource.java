@@ -2,6 +2,7 @@ package org.acme.resource;
 
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.PermitAll;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -15,9 +16,10 @@ import org.acme.dto.ErrorResponse;
 import org.acme.dto.UserDto;
 import org.acme.entity.AllowListEntry;
 import org.acme.entity.User;
+import org.acme.event.UserEvent;
+import org.acme.service.CurrentUser;
 import org.acme.service.JwtService;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.jwt.JsonWebToken;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -44,7 +46,8 @@ public class AuthResource {
             .build();
 
     @Inject JwtService jwtService;
-    @Inject JsonWebToken jwt;
+    @Inject CurrentUser currentUser;
+    @Inject Event<UserEvent> userEvent;
 
     @ConfigProperty(name = "app.dev-auth", defaultValue = "false")
     boolean devAuth;
@@ -58,12 +61,7 @@ public class AuthResource {
     @GET
     @Path("/me")
     public Response me() {
-        if (jwt.getSubject() == null) {
-            return Response.status(401).build();
-        }
-        User user = User.findById(Long.parseLong(jwt.getSubject()));
-        if (user == null) return Response.status(401).build();
-        return Response.ok(UserDto.from(user)).build();
+        return Response.ok(currentUser.get()).build();
     }
 
     @POST
@@ -116,6 +114,7 @@ public class AuthResource {
                 user.persist();
             } else {
                 user.name = name;
+                userEvent.fire(new UserEvent(user.id, UserEvent.EventType.UPDATED));
             }
 
             String token = jwtService.generateToken(user);
@@ -155,6 +154,7 @@ public class AuthResource {
         } else {
             user.name = name;
             user.role = role;
+            userEvent.fire(new UserEvent(user.id, UserEvent.EventType.UPDATED));
         }
 
         String token = jwtService.generateToken(user);
@@ -3,6 +3,7 @@ package org.acme.resource;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
@@ -17,8 +18,9 @@ import org.acme.entity.Application;
 import org.acme.entity.Feedback;
 import org.acme.entity.Project;
 import org.acme.entity.User;
+import org.acme.service.CurrentUser;
+import org.acme.service.ProjectAclIndex;
 import org.acme.validation.ValidEnum;
-import org.eclipse.microprofile.jwt.JsonWebToken;
 
 import java.util.List;
 
@@ -28,7 +30,9 @@ import java.util.List;
 @RunOnVirtualThread
 public class FeedbackResource {
 
-    @Inject JsonWebToken jwt;
+    @Inject CurrentUser currentUser;
+    @Inject ProjectAclIndex projectAcl;
+    @Inject EntityManager em;
 
     public record CreateFeedbackRequest(
             @NotNull(message = "studentId is required") Long studentId,
@@ -41,67 +45,68 @@ public class FeedbackResource {
     @RolesAllowed({"MENTOR", "ADMIN"})
     @Transactional
     public Response createFeedback(@PathParam("projectId") Long projectId, @Valid CreateFeedbackRequest req) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        Project project = Project.findById(projectId);
+        ProjectAclIndex.Access project = projectAcl.findCurrent(projectId);
         if (project == null) return Response.status(404).build();
-        if (currentUser.role != User.Role.ADMIN && !project.mentor.id.equals(currentUser.id)) {
+        if (!currentUser.isAdmin() && !project.isMentor(currentUser.id())) {
             return Response.status(403).build();
         }
 
-        // Verify student is approved for this project
-        Application app = Application.find("project.id = ?1 AND student.id = ?2 AND status = ?3",
-                projectId, req.studentId(), Application.Status.APPROVED).firstResult();
-        if (app == null) {
+        // Verify student is approved for this project (which also proves the student exists)
+        long approved = Application.count("project.id = ?1 AND student.id = ?2 AND status = ?3",
+                projectId, req.studentId(), Application.Status.APPROVED);
+        if (approved == 0) {
             return Response.status(400).entity(new ErrorResponse("Student is not approved for this project")).build();
         }
 
-        User student = User.findById(req.studentId());
-        if (student == null) return Response.status(404).build();
-
         Feedback.Type type = Feedback.Type.valueOf(req.type());
 
         Feedback f = new Feedback();
-        f.project = project;
-        f.student = student;
-        f.mentor = currentUser;
+        f.project = em.getReference(Project.class, projectId);
+        f.student = em.getReference(User.class, req.studentId());
+        f.mentor = currentUser.reference();
         f.type = type;
         f.rating = req.rating();
         f.comment = req.comment();
         f.persist();
 
-        return Response.status(201).entity(FeedbackDto.from(f)).build();
+        return Response.status(201).entity(em.createQuery(FeedbackDto.SELECT + " WHERE f.id = ?1", FeedbackDto.class)
+                .setParameter(1, f.id)
+                .getSingleResult()).build();
     }
 
     @GET
     @Path("/projects/{projectId}/feedback")
     @RolesAllowed({"STUDENT", "MENTOR", "ADMIN"})
     public Response listFeedback(@PathParam("projectId") Long projectId) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        Project project = Project.findById(projectId);
+        ProjectAclIndex.Access project = projectAcl.find(projectId);
         if (project == null) return Response.status(404).build();
 
         // Access rules
         boolean canView = false;
-        if (currentUser.role == User.Role.ADMIN) {
+        if (currentUser.isAdmin()) {
             canView = true;
-        } else if (project.mentor.id.equals(currentUser.id)) {
+        } else if (project.isMentor(currentUser.id())) {
             canView = true;
-        } else if (currentUser.role == User.Role.STUDENT) {
+        } else if (currentUser.role() == User.Role.STUDENT) {
             // Student can view only if approved
-            Application app = Application.find("project.id = ?1 AND student.id = ?2 AND status = ?3",
-                    projectId, currentUser.id, Application.Status.APPROVED).firstResult();
-            canView = (app != null);
+            canView = Application.count("project.id = ?1 AND student.id = ?2 AND status = ?3",
+                    projectId, currentUser.id(), Application.Status.APPROVED) > 0;
         }
 
         if (!canView) return Response.status(403).build();
 
-        List<Feedback> feedbackList;
-        if (currentUser.role == User.Role.STUDENT) {
-            feedbackList = Feedback.list("project.id = ?1 AND student.id = ?2", projectId, currentUser.id);
+        List<FeedbackDto> feedbackList;
+        if (currentUser.role() == User.Role.STUDENT) {
+            feedbackList = em.createQuery(FeedbackDto.SELECT + " WHERE p.id = ?1 AND s.id = ?2", FeedbackDto.class)
+                    .setParameter(1, projectId)
+                    .setParameter(2, currentUser.id())
+                    .getResultList();
         } else {
-            feedbackList = Feedback.list("project.id", projectId);
+            feedbackList = em.createQuery(FeedbackDto.SELECT + " WHERE p.id = ?1", FeedbackDto.class)
+                    .setParameter(1, projectId)
+                    .getResultList();
         }
 
-        return Response.ok(feedbackList.stream().map(FeedbackDto::from).toList()).build();
+        return Response.ok(feedbackList).build();
     }
 }
@@ -2,8 +2,6 @@ package org.acme.resource;
 
 import io.quarkus.cache.CacheInvalidate;
 import io.quarkus.cache.CacheResult;
-import io.quarkus.panache.common.Page;
-import io.quarkus.panache.common.Sort;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
@@ -17,11 +15,19 @@ import jakarta.ws.rs.core.Response;
 import org.acme.dto.*;
 import org.acme.entity.*;
 import org.acme.event.ProjectEvent;
+import org.acme.service.CurrentUser;
+import org.acme.service.ProjectAclIndex;
+import org.acme.service.SemanticSearchFilter;
+import org.acme.service.VectorSearchBackend;
+import org.acme.util.PageCursor;
+import org.acme.util.ReciprocalRankFusion;
+import org.acme.util.TermList;
 import org.acme.validation.ValidEnum;
-import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -38,7 +44,7 @@ public class ProjectResource {
     private static final Logger LOG = Logger.getLogger(ProjectResource.class);
     private static final Duration PARALLEL_TIMEOUT = Duration.ofSeconds(5);
 
-    @Inject JsonWebToken jwt;
+    @Inject CurrentUser currentUser;
 
     @Inject
     @jakarta.inject.Named("virtualExecutor")
@@ -47,12 +53,30 @@ public class ProjectResource {
     @Inject
     org.acme.service.ProjectSearchService searchService;
 
+    @Inject
+    org.acme.service.ProjectFacetIndex facetIndex;
+
+    @Inject
+    org.acme.service.CatalogCountCache catalogCounts;
+
+    @Inject
+    ProjectAclIndex projectAcl;
+
     @Inject
     jakarta.persistence.EntityManager em;
 
     @Inject
     jakarta.enterprise.event.Event<ProjectEvent> projectEvent;
 
+    @ConfigProperty(name = "app.search.semantic-candidates", defaultValue = "200")
+    int semanticCandidates;
+
+    @ConfigProperty(name = "app.search.lexical-candidates", defaultValue = "500")
+    int lexicalCandidates;
+
+    @ConfigProperty(name = "app.search.semantic-timeout", defaultValue = "800ms")
+    Duration semanticTimeout;
+
     public record CreateProjectRequest(
             @NotBlank(message = "title is required") @Size(max = 500, message = "title must be at most 500 characters") String title,
             String goal, String keyTasks, String valueText,
@@ -76,22 +100,34 @@ public class ProjectResource {
             @QueryParam("coursework") Boolean coursework,
             @QueryParam("tags") String tags,
             @QueryParam("skills") String skills,
-            @QueryParam("mentorId") Long mentorId) {
-
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        if (currentUser == null) return Response.status(401).build();
+            @QueryParam("tagMatch") @DefaultValue("all") String tagMatch,
+            @QueryParam("skillMatch") @DefaultValue("all") String skillMatch,
+            @QueryParam("mentorId") Long mentorId,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("withTotal") @DefaultValue("true") boolean withTotal) {
+        // Cursor mode: an empty cursor asks for the first page, a token continues after the previous page
+        boolean hasTextQuery = q != null && !q.isBlank();
+        boolean cursorMode = cursor != null;
+        PageCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = PageCursor.decode(cursor, hasTextQuery ? PageCursor.Kind.SEARCH : PageCursor.Kind.BROWSE);
+            } catch (IllegalArgumentException e) {
+                return Response.status(400).entity(new ErrorResponse(e.getMessage())).build();
+            }
+        }
 
         StringBuilder hql = new StringBuilder("1=1");
         List<Object> params = new ArrayList<>();
         int paramIdx = 1;
 
         // Visibility rules
-        if (currentUser.role == User.Role.ADMIN) {
+        if (currentUser.isAdmin()) {
             // admin sees everything
-        } else if (currentUser.role == User.Role.MENTOR) {
+        } else if (currentUser.role() == User.Role.MENTOR) {
             hql.append(" AND (status = ?").append(paramIdx).append(" OR mentor.id = ?").append(paramIdx + 1).append(")");
             params.add(Project.Status.PUBLISHED);
-            params.add(currentUser.id);
+            params.add(currentUser.id());
             paramIdx += 2;
         } else {
             // STUDENT, TEACHER
@@ -100,16 +136,6 @@ public class ProjectResource {
             paramIdx++;
         }
 
-        // Traditional text search (only if q is provided, semantic will be combined)
-        boolean hasTextQuery = q != null && !q.isBlank();
-        if (hasTextQuery) {
-            hql.append(" AND (LOWER(title) LIKE ?").append(paramIdx)
-               .append(" OR LOWER(goal) LIKE ?").append(paramIdx)
-               .append(" OR LOWER(keyTasks) LIKE ?").append(paramIdx).append(")");
-            params.add("%" + q.toLowerCase() + "%");
-            paramIdx++;
-        }
-
         // Other filters
         if (difficulty != null && !difficulty.isBlank()) {
             hql.append(" AND difficulty = ?").append(paramIdx);
@@ -125,14 +151,17 @@ public class ProjectResource {
         if (coursework != null && coursework) {
             hql.append(" AND courseworkOk = true");
         }
-        if (tags != null && !tags.isBlank()) {
-            hql.append(" AND LOWER(tags) LIKE ?").append(paramIdx);
-            params.add("%" + tags.toLowerCase() + "%");
+        // Whole-term match on the GIN-indexed arrays: array_includes is @> (all of), array_intersects is && (any of)
+        String[] tagTerms = TermList.parse(tags);
+        if (tagTerms.length > 0) {
+            hql.append(" AND ").append(arrayMatch(tagMatch)).append("(tagList, ?").append(paramIdx).append(")");
+            params.add(tagTerms);
             paramIdx++;
         }
-        if (skills != null && !skills.isBlank()) {
-            hql.append(" AND LOWER(requiredSkills) LIKE ?").append(paramIdx);
-            params.add("%" + skills.toLowerCase() + "%");
+        String[] skillTerms = TermList.parse(skills);
+        if (skillTerms.length > 0) {
+            hql.append(" AND ").append(arrayMatch(skillMatch)).append("(skillList, ?").append(paramIdx).append(")");
+            params.add(skillTerms);
             paramIdx++;
         }
         if (mentorId != null) {
@@ -141,105 +170,261 @@ public class ProjectResource {
             paramIdx++;
         }
 
+        // Viewers restricted to published projects are served by the in-memory facet index instead of HQL,
+        // unless the index is overdue for a rebuild
+        boolean fromFacetIndex = !currentUser.isAdmin() && currentUser.role() != User.Role.MENTOR
+                && facetIndex.isFresh();
+        var facetFilter = new org.acme.service.ProjectFacetIndex.Filter(
+                difficulty != null && !difficulty.isBlank() ? Project.Difficulty.valueOf(difficulty) : null,
+                thesis != null && thesis,
+                practice != null && practice,
+                coursework != null && coursework,
+                tagTerms, !"any".equalsIgnoreCase(tagMatch),
+                skillTerms, !"any".equalsIgnoreCase(skillMatch),
+                mentorId);
+
         // Hybrid search: combine traditional and semantic when query is present
         if (hasTextQuery) {
-            // Get traditional search results (with filters already applied in HQL)
-            var traditionalQuery = Project.find(hql.toString(), Sort.descending("createdAt"), params.toArray());
-            @SuppressWarnings("unchecked")
-            List<Project> traditionalResults = (List<Project>) (List<?>) traditionalQuery.list();
-
-            // Get semantic search results
-            var semanticResults = searchService.semanticSearchWithScores(q);
-
-            // Combine using Reciprocal Rank Fusion (RRF)
-            List<Project> combinedResults = combineSearchResults(traditionalResults, semanticResults, currentUser);
-
-            // Apply filters to combined results (semantic results need filtering)
-            List<Project> filteredResults = combinedResults.stream()
-                    .filter(p -> matchesFilters(p, difficulty, thesis, practice, coursework, tags, skills, mentorId))
-                    .toList();
-
-            // Apply pagination to filtered results
-            long total = filteredResults.size();
-            int fromIndex = page * size;
-            int toIndex = Math.min(fromIndex + size, filteredResults.size());
-            List<Project> items = fromIndex < filteredResults.size()
-                ? filteredResults.subList(fromIndex, toIndex)
-                : List.of();
-
-            return Response.ok(new PageDto<>(items.stream().map(ProjectDto::from).toList(), total, page, size)).build();
+            // Start the semantic leg first; it only ranks ids, entities are loaded on this thread
+            long semanticDeadline = System.nanoTime() + semanticTimeout.toNanos();
+            var candidateFilter = new SemanticSearchFilter(
+                    !currentUser.isAdmin(),
+                    currentUser.role() == User.Role.MENTOR ? currentUser.id() : null,
+                    difficulty != null && !difficulty.isBlank() ? Project.Difficulty.valueOf(difficulty) : null,
+                    thesis != null && thesis,
+                    practice != null && practice,
+                    coursework != null && coursework,
+                    tagTerms, !"any".equalsIgnoreCase(tagMatch),
+                    skillTerms, !"any".equalsIgnoreCase(skillMatch),
+                    mentorId);
+            CompletableFuture<List<VectorSearchBackend.Hit>> semanticLeg = CompletableFuture.supplyAsync(
+                    () -> searchService.semanticHits(q, semanticCandidates, candidateFilter), virtualExecutor);
+
+            // Full-text search meanwhile: ids ranked by ts_rank among the rows that pass the filters
+            List<Long> lexicalIds = searchService.lexicalSearch(q, lexicalCandidates, candidateFilter);
+
+            // Wait for the semantic candidates within the latency budget, otherwise serve lexical results only
+            boolean degraded = false;
+            List<VectorSearchBackend.Hit> hits = List.of();
+            try {
+                hits = semanticLeg.get(Math.max(0, semanticDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                semanticLeg.cancel(true);
+                degraded = true;
+                LOG.warnf("Semantic search exceeded %d ms budget, returning lexical results only", semanticTimeout.toMillis());
+            } catch (ExecutionException e) {
+                degraded = true;
+                LOG.warn("Semantic search failed, returning lexical results only", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                degraded = true;
+            }
+
+            // Apply visibility and catalog filters to the candidates of both legs before fusion, in one query
+            java.util.Set<Long> candidates = new java.util.HashSet<>(lexicalIds);
+            hits.forEach(hit -> candidates.add(hit.projectId()));
+            java.util.Set<Long> allowed = java.util.Set.of();
+            if (fromFacetIndex) {
+                allowed = facetIndex.retainMatching(candidates, facetFilter);
+            } else if (!candidates.isEmpty()) {
+                List<Object> candidateParams = new ArrayList<>(params);
+                candidateParams.add(candidates);
+                allowed = new java.util.HashSet<>(selectIds(
+                        "SELECT id FROM Project WHERE " + hql + " AND id IN ?" + paramIdx, candidateParams));
+            }
+            long[] lexicalRanking = rankingOf(lexicalIds, allowed);
+            long[] semanticRanking = rankingOf(hits.stream().map(VectorSearchBackend.Hit::projectId).toList(), allowed);
+
+            // Combine using Reciprocal Rank Fusion (RRF) on ids only
+            ReciprocalRankFusion fusion = new ReciprocalRankFusion(
+                    ReciprocalRankFusion.DEFAULT_K, lexicalRanking.length + semanticRanking.length);
+            fusion.addRanking(lexicalRanking, lexicalRanking.length);
+            fusion.addRanking(semanticRanking, semanticRanking.length);
+            long[] ranked = fusion.ranked();
+
+            // Hydrate only the requested page; a cursor resumes after its (score, id) in the fused order
+            int fromIndex = cursorMode ? 0 : (int) Math.min((long) page * size, ranked.length);
+            if (after != null) {
+                fromIndex = ranked.length;
+                for (int i = 0; i < ranked.length; i++) {
+                    double score = fusion.score(ranked[i]);
+                    if (score < after.score() || (score == after.score() && ranked[i] < after.id())) {
+                        fromIndex = i;
+                        break;
+                    }
+                }
+            }
+            int toIndex = Math.min(fromIndex + size, ranked.length);
+            List<ProjectDto> items = findAllInOrder(java.util.Arrays.stream(ranked, fromIndex, toIndex).boxed().toList());
+            String nextCursor = cursorMode && toIndex > fromIndex && toIndex < ranked.length
+                    ? PageCursor.search(fusion.score(ranked[toIndex - 1]), ranked[toIndex - 1]).encode()
+                    : null;
+
+            return Response.ok(new PageDto<>(items, (long) ranked.length, page, size, degraded, null, nextCursor)).build();
+        } else if (fromFacetIndex) {
+            // No text query - bitmap filtering, newest first, with facet counts on the first page
+            var result = after != null
+                    ? facetIndex.searchAfter(facetFilter, after.id(), size)
+                    : facetIndex.search(facetFilter, cursorMode ? 0 : page, size);
+            var facets = result.facets();
+            long total = result.total();
+
+            // The index follows commits asynchronously; never show a project archived or deleted a moment ago.
+            // Such rows are dropped and re-indexed, and the page is topped up from the index after the last id read.
+            List<ProjectDto> items = new ArrayList<>(size);
+            long lastId = -1;
+            while (true) {
+                List<ProjectDto> hydrated = findAllInOrder(result.ids());
+                java.util.Set<Long> kept = new java.util.HashSet<>();
+                for (ProjectDto p : hydrated) {
+                    if (Project.Status.PUBLISHED.name().equals(p.status())) {
+                        items.add(p);
+                        kept.add(p.id());
+                    }
+                }
+                for (Long id : result.ids()) {
+                    if (!kept.contains(id)) {
+                        total--;
+                        facetIndex.refresh(id);
+                    }
+                }
+                if (!result.ids().isEmpty()) {
+                    lastId = result.ids().get(result.ids().size() - 1);
+                }
+                if (items.size() >= size || !result.hasMore() || lastId < 0) {
+                    break;
+                }
+                result = facetIndex.searchAfter(facetFilter, lastId, size - items.size());
+            }
+
+            // The index pages by id alone, so the cursor resumes after the last id read, kept or not
+            String nextCursor = null;
+            if (cursorMode && result.hasMore() && lastId >= 0) {
+                Instant lastCreatedAt = items.isEmpty() ? Instant.EPOCH : items.get(items.size() - 1).createdAt();
+                nextCursor = PageCursor.browse(lastCreatedAt, lastId).encode();
+            }
+            return Response.ok(new PageDto<>(items, Math.max(total, items.size()), page, size, false, facets, nextCursor))
+                    .build();
         } else {
-            // No text query - use traditional sorting by date
-            var query = Project.find(hql.toString(), Sort.descending("createdAt"), params.toArray());
-            long total = query.count();
-            List<Project> items = query.page(Page.of(page, size)).list();
-            return Response.ok(new PageDto<>(items.stream().map(ProjectDto::from).toList(), total, page, size)).build();
+            // No text query - newest first; id breaks ties so the order is total and a keyset can resume it
+            String filter = hql.toString();
+            List<Object> filterParams = List.copyOf(params);
+            Long total = withTotal ? catalogCounts.get(filter, filterParams) : null;
+            boolean countInline = withTotal && total == null;
+
+            int firstRow = cursorMode ? 0 : page * size;
+            // In cursor mode one extra row tells whether another page follows
+            int maxRows = cursorMode ? size + 1 : size;
+            if (after != null) {
+                hql.append(" AND (createdAt, id) < (?").append(paramIdx).append(", ?").append(paramIdx + 1).append(")");
+                params.add(after.createdAt());
+                params.add(after.id());
+                paramIdx += 2;
+            }
+
+            List<ProjectDto> items;
+            if (countInline && after == null) {
+                // Page and total in one statement: the window counts every row passing the filter before LIMIT
+                var query = em.createQuery("SELECT " + ProjectDto.NEW + ", count(*) OVER () FROM Project p WHERE " + hql
+                        + " ORDER BY p.createdAt DESC, p.id DESC", Object[].class);
+                for (int i = 0; i < params.size(); i++) {
+                    query.setParameter(i + 1, params.get(i));
+                }
+                List<Object[]> rows = query.setFirstResult(firstRow).setMaxResults(maxRows).getResultList();
+                items = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    items.add((ProjectDto) row[0]);
+                    total = ((Number) row[1]).longValue();
+                }
+                if (rows.isEmpty() && firstRow == 0) {
+                    total = 0L;
+                }
+            } else {
+                var query = em.createQuery(ProjectDto.SELECT + " WHERE " + hql
+                        + " ORDER BY p.createdAt DESC, p.id DESC", ProjectDto.class);
+                for (int i = 0; i < params.size(); i++) {
+                    query.setParameter(i + 1, params.get(i));
+                }
+                items = query.setFirstResult(firstRow).setMaxResults(maxRows).getResultList();
+            }
+            if (countInline) {
+                if (total == null) {
+                    // Past the last page the window has no row to report on
+                    total = Project.count(filter, filterParams.toArray());
+                }
+                catalogCounts.put(filter, filterParams, total);
+            }
+
+            String nextCursor = null;
+            if (cursorMode && items.size() > size) {
+                items = items.subList(0, size);
+                ProjectDto last = items.get(size - 1);
+                nextCursor = PageCursor.browse(last.createdAt(), last.id()).encode();
+            }
+            return Response.ok(new PageDto<>(items, total, page, size, false, null, nextCursor)).build();
         }
     }
 
-    /**
-     * Combine traditional and semantic search results using Reciprocal Rank Fusion (RRF).
-     * RRF score = sum(1 / (k + rank)) where k=60 is a smoothing constant.
-     * Higher score means better match.
-     */
-    private List<Project> combineSearchResults(
-            List<Project> traditionalResults,
-            List<org.acme.service.ProjectSearchService.ProjectWithDistance> semanticResults,
-            User currentUser) {
-
-        final int K = 60; // RRF constant
-        Map<Long, Double> scores = new java.util.HashMap<>();
-
-        // Add scores from traditional search (rank-based)
-        for (int i = 0; i < traditionalResults.size(); i++) {
-            Project p = traditionalResults.get(i);
-            double rrfScore = 1.0 / (K + i + 1); // rank is i+1 (1-indexed)
-            scores.merge(p.id, rrfScore, Double::sum);
-        }
+    private static String arrayMatch(String mode) {
+        return "any".equalsIgnoreCase(mode) ? "array_intersects" : "array_includes";
+    }
 
-        // Add scores from semantic search (rank-based)
-        for (int i = 0; i < semanticResults.size(); i++) {
-            var result = semanticResults.get(i);
-            Project p = result.project();
+    private List<Long> selectIds(String jpql, List<Object> params) {
+        var query = em.createQuery(jpql, Long.class);
+        for (int i = 0; i < params.size(); i++) {
+            query.setParameter(i + 1, params.get(i));
+        }
+        return query.getResultList();
+    }
 
-            // Apply visibility filter to semantic results
-            boolean visible = currentUser.role == User.Role.ADMIN ||
-                    (currentUser.role == User.Role.MENTOR &&
-                     (p.status == Project.Status.PUBLISHED || p.mentor.id.equals(currentUser.id))) ||
-                    p.status == Project.Status.PUBLISHED;
+    /**
+     * Ranked ids restricted to the allowed set, keeping their order.
+     */
+    private static long[] rankingOf(List<Long> ids, java.util.Set<Long> allowed) {
+        return ids.stream().filter(allowed::contains).mapToLong(Long::longValue).toArray();
+    }
 
-            if (visible) {
-                double rrfScore = 1.0 / (K + i + 1); // rank is i+1 (1-indexed)
-                scores.merge(p.id, rrfScore, Double::sum);
-            }
+    /**
+     * Project DTOs with their mentors in a single query, in the order of the given ids.
+     */
+    private List<ProjectDto> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
+        Map<Long, ProjectDto> byId = em.createQuery(ProjectDto.SELECT + " WHERE p.id IN :ids", ProjectDto.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(ProjectDto::id, p -> p));
+        return ids.stream().map(byId::get).filter(p -> p != null).toList();
+    }
 
-        // Collect all unique projects and sort by combined score
-        return scores.entrySet().stream()
-                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
-                .map(entry -> (Project) Project.findById(entry.getKey()))
-                .filter(p -> p != null)
-                .toList();
+    @GET
+    @Path("/projects/terms")
+    @RolesAllowed({"STUDENT", "TEACHER", "MENTOR", "ADMIN"})
+    public Response suggestTerms(
+            @QueryParam("kind") @DefaultValue("tag") String kind,
+            @QueryParam("q") String q,
+            @QueryParam("limit") @DefaultValue("10") int limit) {
+        if (!"tag".equalsIgnoreCase(kind) && !"skill".equalsIgnoreCase(kind)) {
+            return Response.status(400).entity(new ErrorResponse("kind must be 'tag' or 'skill'")).build();
+        }
+        return Response.ok(searchService.suggestTerms(kind.toUpperCase(), q, Math.max(1, Math.min(limit, 50)))).build();
     }
 
     @GET
     @Path("/projects/{id}")
     @RolesAllowed({"STUDENT", "TEACHER", "MENTOR", "ADMIN"})
     public Response getById(@PathParam("id") Long id) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        Project p = Project.findById(id);
-        if (p == null) return Response.status(404).build();
+        ProjectAclIndex.Access access = projectAcl.find(id);
+        if (access == null) return Response.status(404).build();
 
         // Access check
-        if (currentUser.role != User.Role.ADMIN) {
-            if (p.status != Project.Status.PUBLISHED && !p.mentor.id.equals(currentUser.id)) {
-                return Response.status(403).build();
-            }
+        if (!currentUser.isAdmin() && !access.isVisibleTo(currentUser.id())) {
+            return Response.status(403).build();
         }
 
         // Use cached DTO conversion for better performance
-        ProjectDto dto = getCachedProjectDto(id);
-        return Response.ok(dto).build();
+        return Response.ok(getCachedProjectDto(id)).build();
     }
 
     /**
@@ -248,11 +433,19 @@ public class ProjectResource {
      */
     @CacheResult(cacheName = "project-details")
     ProjectDto getCachedProjectDto(Long id) {
-        Project p = Project.findById(id);
-        if (p == null) {
+        ProjectDto dto = findDto(id);
+        if (dto == null) {
             throw new NotFoundException("Project not found: " + id);
         }
-        return ProjectDto.from(p);
+        return dto;
+    }
+
+    private ProjectDto findDto(Long id) {
+        return em.createQuery(ProjectDto.SELECT + " WHERE p.id = ?1", ProjectDto.class)
+                .setParameter(1, id)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
     }
 
     /**
@@ -263,14 +456,15 @@ public class ProjectResource {
     @Path("/projects/{id}/full")
     @RolesAllowed({"MENTOR", "ADMIN"})
     public Response getFullDetails(@PathParam("id") Long id) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        Project project = Project.findById(id);
-        if (project == null) return Response.status(404).build();
+        ProjectAclIndex.Access access = projectAcl.find(id);
+        if (access == null) return Response.status(404).build();
 
         // Only mentor of this project or admin can access full details
-        if (currentUser.role != User.Role.ADMIN && !project.mentor.id.equals(currentUser.id)) {
+        if (!currentUser.isAdmin() && !access.isMentor(currentUser.id())) {
             return Response.status(403).build();
         }
+        ProjectDto project = findDto(id);
+        if (project == null) return Response.status(404).build();
 
         try {
             ProjectFullDto fullDto = fetchProjectDetailsConcurrently(project);
@@ -286,35 +480,28 @@ public class ProjectResource {
      * Fetch all project-related data concurrently using CompletableFuture with virtual thread executor.
      * Includes timeout and proper exception propagation.
      */
-    private ProjectFullDto fetchProjectDetailsConcurrently(Project project) throws Exception {
-        Long projectId = project.id;
+    private ProjectFullDto fetchProjectDetailsConcurrently(ProjectDto project) throws Exception {
+        Long projectId = project.id();
 
-        // Launch all I/O tasks in parallel on virtual threads
+        // Launch all I/O tasks in parallel on virtual threads; each is a single projection query
         CompletableFuture<List<ApplicationDto>> applicationsFuture = CompletableFuture.supplyAsync(() ->
-                Application.list("project.id", projectId).stream()
-                        .map(a -> ApplicationDto.from((Application) a))
-                        .toList(),
+                em.createQuery(ApplicationDto.SELECT + " WHERE p.id = ?1", ApplicationDto.class)
+                        .setParameter(1, projectId)
+                        .getResultList(),
                 virtualExecutor
         );
 
-        CompletableFuture<List<QuestionDto>> questionsFuture = CompletableFuture.supplyAsync(() -> {
-            List<Question> questions = Question.list("project.id = ?1 order by createdAt desc", projectId);
-            List<Long> qIds = questions.stream().map(q -> q.id).toList();
-            Map<Long, Answer> answerMap = Map.of();
-            if (!qIds.isEmpty()) {
-                List<Answer> answers = Answer.list("question.id in ?1", qIds);
-                answerMap = answers.stream().collect(Collectors.toMap(a -> a.question.id, a -> a));
-            }
-            Map<Long, Answer> finalAnswerMap = answerMap;
-            return questions.stream()
-                    .map(q -> QuestionDto.from(q, finalAnswerMap.get(q.id)))
-                    .toList();
-        }, virtualExecutor);
+        CompletableFuture<List<QuestionDto>> questionsFuture = CompletableFuture.supplyAsync(() ->
+                em.createQuery(QuestionDto.SELECT + " WHERE p.id = ?1 ORDER BY q.createdAt DESC", QuestionDto.class)
+                        .setParameter(1, projectId)
+                        .getResultList(),
+                virtualExecutor
+        );
 
         CompletableFuture<List<FeedbackDto>> feedbackFuture = CompletableFuture.supplyAsync(() ->
-                Feedback.list("project.id", projectId).stream()
-                        .map(f -> FeedbackDto.from((Feedback) f))
-                        .toList(),
+                em.createQuery(FeedbackDto.SELECT + " WHERE p.id = ?1", FeedbackDto.class)
+                        .setParameter(1, projectId)
+                        .getResultList(),
                 virtualExecutor
         );
 
@@ -322,7 +509,7 @@ public class ProjectResource {
         CompletableFuture<ProjectFullDto> combined = CompletableFuture.allOf(
                 applicationsFuture, questionsFuture, feedbackFuture
         ).thenApply(v -> new ProjectFullDto(
-                ProjectDto.from(project),
+                project,
                 applicationsFuture.join(),
                 questionsFuture.join(),
                 feedbackFuture.join()
@@ -336,9 +523,8 @@ public class ProjectResource {
     @RolesAllowed({"MENTOR", "ADMIN"})
     @Transactional
     public Response create(@Valid CreateProjectRequest req) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
         Project p = new Project();
-        p.mentor = currentUser;
+        p.mentor = currentUser.reference();
         applyFields(p, req);
         p.status = Project.Status.DRAFT;
         p.persist();
@@ -355,12 +541,9 @@ public class ProjectResource {
     @Transactional
     @CacheInvalidate(cacheName = "project-details")
     public Response update(@PathParam("id") Long id, @Valid CreateProjectRequest req) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        Project p = Project.findById(id);
-        if (p == null) return Response.status(404).build();
-        if (currentUser.role != User.Role.ADMIN && !p.mentor.id.equals(currentUser.id)) {
-            return Response.status(403).build();
-        }
+        Project p = Project.findWithMentor(id);
+        Response denied = checkOwner(p);
+        if (denied != null) return denied;
         applyFields(p, req);
 
         // Fire event to regenerate embedding after transaction commits
@@ -375,13 +558,11 @@ public class ProjectResource {
     @Transactional
     @CacheInvalidate(cacheName = "project-details")
     public Response publish(@PathParam("id") Long id) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        Project p = Project.findById(id);
-        if (p == null) return Response.status(404).build();
-        if (currentUser.role != User.Role.ADMIN && !p.mentor.id.equals(currentUser.id)) {
-            return Response.status(403).build();
-        }
+        Project p = Project.findWithMentor(id);
+        Response denied = checkOwner(p);
+        if (denied != null) return denied;
         p.status = Project.Status.PUBLISHED;
+        projectEvent.fire(new ProjectEvent(p.id, ProjectEvent.EventType.PUBLISHED));
         return Response.ok(ProjectDto.from(p)).build();
     }
 
@@ -391,40 +572,29 @@ public class ProjectResource {
     @Transactional
     @CacheInvalidate(cacheName = "project-details")
     public Response archive(@PathParam("id") Long id) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        Project p = Project.findById(id);
-        if (p == null) return Response.status(404).build();
-        if (currentUser.role != User.Role.ADMIN && !p.mentor.id.equals(currentUser.id)) {
-            return Response.status(403).build();
-        }
+        Project p = Project.findWithMentor(id);
+        Response denied = checkOwner(p);
+        if (denied != null) return denied;
         p.status = Project.Status.ARCHIVED;
+        projectEvent.fire(new ProjectEvent(p.id, ProjectEvent.EventType.ARCHIVED));
         return Response.ok(ProjectDto.from(p)).build();
     }
 
-
     /**
-     * Check if a project matches all active filters.
+     * 404 or 403 response unless the caller may modify the loaded project, or null if they may.
+     * Decides on the entity the handler loads anyway, so a mutation costs no extra lookup.
      */
-    private boolean matchesFilters(Project p, String difficulty, Boolean thesis, Boolean practice,
-                                   Boolean coursework, String tags, String skills, Long mentorId) {
-        if (difficulty != null && !difficulty.isBlank()) {
-            if (p.difficulty != Project.Difficulty.valueOf(difficulty)) return false;
-        }
-        if (thesis != null && thesis && !p.thesisOk) return false;
-        if (practice != null && practice && !p.practiceOk) return false;
-        if (coursework != null && coursework && !p.courseworkOk) return false;
-        if (tags != null && !tags.isBlank()) {
-            if (p.tags == null || !p.tags.toLowerCase().contains(tags.toLowerCase())) return false;
-        }
-        if (skills != null && !skills.isBlank()) {
-            if (p.requiredSkills == null || !p.requiredSkills.toLowerCase().contains(skills.toLowerCase())) return false;
-        }
-        if (mentorId != null) {
-            if (!p.mentor.id.equals(mentorId)) return false;
+    private Response checkOwner(Project p) {
+        if (p == null) return Response.status(404).build();
+        if (!currentUser.isAdmin() && !p.mentor.id.equals(currentUser.id())) {
+            return Response.status(403).build();
         }
-        return true;
+        return null;
     }
 
+    /**
+     * Copy the fields set in the request onto the project; absent fields keep their current value.
+     */
     private void applyFields(Project p, CreateProjectRequest r) {
         if (r.title() != null) p.title = r.title();
         if (r.goal() != null) p.goal = r.goal();
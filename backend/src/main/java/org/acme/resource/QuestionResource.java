@@ -3,6 +3,7 @@ package org.acme.resource;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -15,13 +16,9 @@ import org.acme.dto.QuestionDto;
 import org.acme.entity.Answer;
 import org.acme.entity.Project;
 import org.acme.entity.Question;
-import org.acme.entity.User;
+import org.acme.service.CurrentUser;
+import org.acme.service.ProjectAclIndex;
 import org.acme.validation.ValidEnum;
-import org.eclipse.microprofile.jwt.JsonWebToken;
-
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Path("/api")
 @Produces(MediaType.APPLICATION_JSON)
@@ -29,7 +26,9 @@ import java.util.stream.Collectors;
 @RunOnVirtualThread
 public class QuestionResource {
 
-    @Inject JsonWebToken jwt;
+    @Inject CurrentUser currentUser;
+    @Inject ProjectAclIndex projectAcl;
+    @Inject EntityManager em;
 
     public record AskRequest(
             @NotBlank(message = "text is required") String text,
@@ -42,41 +41,25 @@ public class QuestionResource {
     @Path("/projects/{id}/questions")
     @RolesAllowed({"STUDENT", "TEACHER", "MENTOR", "ADMIN"})
     public Response listQuestions(@PathParam("id") Long projectId) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        Project project = Project.findById(projectId);
+        ProjectAclIndex.Access project = projectAcl.find(projectId);
         if (project == null) return Response.status(404).build();
 
         // Access: must be able to see the project
-        if (currentUser.role != User.Role.ADMIN && project.status != Project.Status.PUBLISHED
-                && !project.mentor.id.equals(currentUser.id)) {
+        if (!currentUser.isAdmin() && !project.isVisibleTo(currentUser.id())) {
             return Response.status(403).build();
         }
 
-        List<Question> questions = Question.list("project.id = ?1 order by createdAt desc", projectId);
-
-        // Filter private questions
-        List<Question> visible = questions.stream().filter(q -> {
-            if (q.visibility == Question.Visibility.PUBLIC) return true;
-            if (currentUser.role == User.Role.ADMIN) return true;
-            if (q.author.id.equals(currentUser.id)) return true;
-            if (project.mentor.id.equals(currentUser.id)) return true;
-            return false;
-        }).toList();
-
-        // Load answers in one query
-        List<Long> qIds = visible.stream().map(q -> q.id).toList();
-        Map<Long, Answer> answerMap = Map.of();
-        if (!qIds.isEmpty()) {
-            List<Answer> answers = Answer.list("question.id in ?1", qIds);
-            answerMap = answers.stream().collect(Collectors.toMap(a -> a.question.id, a -> a));
+        // Questions with their answers in one query; private ones only for the author, the mentor and admins
+        boolean seesPrivate = currentUser.isAdmin() || project.isMentor(currentUser.id());
+        var query = em.createQuery(QuestionDto.SELECT + " WHERE p.id = ?1"
+                + (seesPrivate ? "" : " AND (q.visibility = ?2 OR u.id = ?3)")
+                + " ORDER BY q.createdAt DESC", QuestionDto.class)
+                .setParameter(1, projectId);
+        if (!seesPrivate) {
+            query.setParameter(2, Question.Visibility.PUBLIC).setParameter(3, currentUser.id());
         }
 
-        Map<Long, Answer> finalAnswerMap = answerMap;
-        List<QuestionDto> dtos = visible.stream()
-                .map(q -> QuestionDto.from(q, finalAnswerMap.get(q.id)))
-                .toList();
-
-        return Response.ok(dtos).build();
+        return Response.ok(query.getResultList()).build();
     }
 
     @POST
@@ -84,19 +67,19 @@ public class QuestionResource {
     @RolesAllowed({"STUDENT", "TEACHER", "MENTOR", "ADMIN"})
     @Transactional
     public Response askQuestion(@PathParam("id") Long projectId, @Valid AskRequest req) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        Project project = Project.findById(projectId);
-        if (project == null) return Response.status(404).build();
+        if (projectAcl.findCurrent(projectId) == null) return Response.status(404).build();
 
         Question q = new Question();
-        q.project = project;
-        q.author = currentUser;
+        q.project = em.getReference(Project.class, projectId);
+        q.author = currentUser.reference();
         q.text = req.text();
         q.visibility = "PRIVATE".equalsIgnoreCase(req.visibility())
                 ? Question.Visibility.PRIVATE : Question.Visibility.PUBLIC;
         q.persist();
 
-        return Response.status(201).entity(QuestionDto.from(q, null)).build();
+        return Response.status(201).entity(em.createQuery(QuestionDto.SELECT + " WHERE q.id = ?1", QuestionDto.class)
+                .setParameter(1, q.id)
+                .getSingleResult()).build();
     }
 
     @POST
@@ -104,28 +87,32 @@ public class QuestionResource {
     @RolesAllowed({"MENTOR", "ADMIN"})
     @Transactional
     public Response answerQuestion(@PathParam("id") Long questionId, @Valid AnswerRequest req) {
-        User currentUser = User.findById(Long.parseLong(jwt.getSubject()));
-        Question question = Question.findById(questionId);
-        if (question == null) return Response.status(404).build();
+        Long projectId = em.createQuery("SELECT q.project.id FROM Question q WHERE q.id = ?1", Long.class)
+                .setParameter(1, questionId)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+        if (projectId == null) return Response.status(404).build();
 
         // Only project mentor or admin
-        if (currentUser.role != User.Role.ADMIN
-                && !question.project.mentor.id.equals(currentUser.id)) {
+        ProjectAclIndex.Access project = projectAcl.findCurrent(projectId);
+        if (!currentUser.isAdmin() && (project == null || !project.isMentor(currentUser.id()))) {
             return Response.status(403).build();
         }
 
         // Check if already answered
-        Answer existing = Answer.find("question.id", questionId).firstResult();
-        if (existing != null) {
+        if (Answer.count("question.id", questionId) > 0) {
             return Response.status(409).entity(new ErrorResponse("Question already answered")).build();
         }
 
         Answer a = new Answer();
-        a.question = question;
-        a.responder = currentUser;
+        a.question = em.getReference(Question.class, questionId);
+        a.responder = currentUser.reference();
         a.text = req.text();
         a.persist();
 
-        return Response.status(201).entity(AnswerDto.from(a)).build();
+        return Response.status(201)
+                .entity(new AnswerDto(a.id, currentUser.id(), currentUser.get().name(), a.text, a.createdAt))
+                .build();
     }
 }
@@ -0,0 +1,43 @@
+package org.acme.resource;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.acme.util.StatementCounter;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+/**
+ * Reports the number of SQL statements an endpoint issued in the {@code X-SQL-Statements} response header,
+ * when enabled. Filters run on the endpoint's thread, so statements of the request thread are counted;
+ * work handed to other executors is not.
+ */
+public class StatementCountFilter {
+
+    private static final Logger LOG = Logger.getLogger(StatementCountFilter.class);
+
+    public static final String HEADER = "X-SQL-Statements";
+
+    @ConfigProperty(name = "app.diagnostics.statement-count-header", defaultValue = "false")
+    boolean enabled;
+
+    @ServerRequestFilter
+    public void startCounting(ContainerRequestContext request) {
+        if (enabled) {
+            StatementCounter.start();
+        }
+    }
+
+    @ServerResponseFilter
+    public void reportCount(ContainerRequestContext request, ContainerResponseContext response) {
+        if (!enabled) {
+            return;
+        }
+        int statements = StatementCounter.stop();
+        if (statements >= 0) {
+            response.getHeaders().putSingle(HEADER, statements);
+            LOG.debugf("%s %s: %d SQL statements", request.getMethod(), request.getUriInfo().getPath(), statements);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.acme.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import org.acme.event.ProjectEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Totals of catalog listings keyed by the filter tuple (predicate plus parameter values), so paging
+ * through one listing counts it once. Any project event may change any total, so every event clears the cache;
+ * the TTL bounds staleness for changes made on other nodes.
+ */
+@ApplicationScoped
+public class CatalogCountCache {
+
+    @ConfigProperty(name = "app.search.count-cache.max-size", defaultValue = "1000")
+    long maxSize;
+
+    @ConfigProperty(name = "app.search.count-cache.ttl", defaultValue = "60s")
+    Duration ttl;
+
+    private Cache<Key, Long> counts;
+
+    private record Key(String where, List<Object> params) {}
+
+    @PostConstruct
+    void init() {
+        counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Cached total for the filter, or null.
+     */
+    public Long get(String where, List<Object> params) {
+        return counts.getIfPresent(key(where, params));
+    }
+
+    public void put(String where, List<Object> params, long total) {
+        counts.put(key(where, params), total);
+    }
+
+    void onProjectEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProjectEvent event) {
+        counts.invalidateAll();
+    }
+
+    private static Key key(String where, List<Object> params) {
+        // Arrays (tag and skill terms) compare by identity; key on their contents
+        List<Object> values = new ArrayList<>(params.size());
+        for (Object param : params) {
+            values.add(param instanceof Object[] array ? Arrays.asList(array) : param);
+        }
+        return new Key(where, values);
+    }
+}
@@ -0,0 +1,67 @@
+package org.acme.service;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.NotAuthorizedException;
+import org.acme.dto.UserDto;
+import org.acme.entity.User;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+/**
+ * The caller of the current request. The id comes from the token subject; email, name and role come from
+ * {@link UserCache}, so a role change takes effect without a new token and without a query per request.
+ * {@link UserRoleAugmentor} applies the same role to {@code @RolesAllowed}.
+ * Resolved once per request on first use.
+ */
+@RequestScoped
+public class CurrentUser {
+
+    @Inject
+    JsonWebToken jwt;
+
+    @Inject
+    UserCache userCache;
+
+    @Inject
+    EntityManager em;
+
+    private UserDto user;
+
+    /**
+     * The caller.
+     *
+     * @throws NotAuthorizedException if the request carries no token or its user no longer exists
+     */
+    public UserDto get() {
+        if (user == null) {
+            if (jwt.getSubject() == null) {
+                throw new NotAuthorizedException("Bearer");
+            }
+            user = userCache.get(Long.parseLong(jwt.getSubject()));
+            if (user == null) {
+                throw new NotAuthorizedException("Bearer");
+            }
+        }
+        return user;
+    }
+
+    public Long id() {
+        return get().id();
+    }
+
+    public User.Role role() {
+        return User.Role.valueOf(get().role());
+    }
+
+    public boolean isAdmin() {
+        return role() == User.Role.ADMIN;
+    }
+
+    /**
+     * Unloaded reference to the caller's entity, for setting associations without a SELECT.
+     */
+    public User reference() {
+        return em.getReference(User.class, id());
+    }
+}
@@ -0,0 +1,33 @@
+package org.acme.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.util.VectorUtils;
+
+import java.lang.reflect.Type;
+
+/**
+ * Stores cached embeddings as raw little-endian floats: 4 KB for a 1024-dim vector instead of a JSON array.
+ */
+@ApplicationScoped
+public class EmbeddingCodec extends MeteredCodec {
+
+    @Override
+    public String name() {
+        return "embedding";
+    }
+
+    @Override
+    public boolean canHandle(Type clazz) {
+        return clazz == float[].class;
+    }
+
+    @Override
+    protected byte[] encodeValue(Object item) {
+        return VectorUtils.toLittleEndianBytes((float[]) item);
+    }
+
+    @Override
+    protected Object decodeValue(byte[] item) {
+        return VectorUtils.fromLittleEndianBytes(item);
+    }
+}
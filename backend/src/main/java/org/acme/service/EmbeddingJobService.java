@@ -0,0 +1,288 @@
+package org.acme.service;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Transactional;
+import org.acme.dto.EmbeddingJobDto;
+import org.acme.entity.EmbeddingJob;
+import org.acme.entity.Project;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background re-embedding jobs for admins.
+ * A job runs {@link EmbeddingReindexService} on the virtual executor and persists its counters and
+ * keyset checkpoint after every page, so a job interrupted by a restart resumes where it stopped.
+ * At most one job runs at a time across the cluster (a partial unique index on RUNNING). The node running
+ * it owns a lease in the job row and renews it at every checkpoint; a job whose owner stopped renewing is
+ * taken over by the next node that starts up or receives a start request. Checkpoints read the row
+ * {@code FOR UPDATE}, so a cancellation from any node is seen after the page in flight and never overwritten.
+ */
+@ApplicationScoped
+public class EmbeddingJobService {
+
+    private static final Logger LOG = Logger.getLogger(EmbeddingJobService.class);
+    private static final int RECENT_JOBS = 20;
+
+    @Inject
+    EmbeddingReindexService reindexService;
+
+    @Inject
+    ProjectEmbeddingIndex embeddingIndex;
+
+    @Inject
+    @Named("virtualExecutor")
+    ExecutorService executorService;
+
+    // Must comfortably exceed the time one page takes, or a slow page lets another node take over
+    @ConfigProperty(name = "app.embedding.jobs.lease", defaultValue = "10m")
+    Duration lease;
+
+    // Lease owner name of this instance
+    private final String nodeId = System.getenv().getOrDefault("HOSTNAME", "node") + "/" + UUID.randomUUID();
+
+    // Jobs executing in this instance
+    private final Map<Long, RunningJob> running = new ConcurrentHashMap<>();
+
+    void onStart(@Observes StartupEvent ev) {
+        for (EmbeddingJob job : findRunningJobs()) {
+            EmbeddingJob claimed = claim(job.id);
+            if (claimed != null) {
+                LOG.infof("Resuming embedding job %d after project ID %d", claimed.id, claimed.lastProjectId);
+                submit(claimed);
+            }
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        for (Long jobId : running.keySet()) {
+            try {
+                release(jobId);
+            } catch (Exception e) {
+                LOG.warnf(e, "Failed to release embedding job %d", jobId);
+            }
+        }
+    }
+
+    /**
+     * Start a re-index of the whole catalog, or return the job that is already running.
+     */
+    public synchronized EmbeddingJobDto start() {
+        List<EmbeddingJob> active = findRunningJobs();
+        if (active.isEmpty()) {
+            try {
+                EmbeddingJob job = createJob();
+                submit(job);
+                return toDto(job);
+            } catch (PersistenceException e) {
+                // Another node created a job at the same moment
+                active = findRunningJobs();
+                if (active.isEmpty()) {
+                    throw e;
+                }
+            }
+        }
+
+        EmbeddingJob job = active.get(0);
+        if (!running.containsKey(job.id)) {
+            EmbeddingJob claimed = claim(job.id);
+            if (claimed != null) {
+                LOG.infof("Taking over embedding job %d after project ID %d", claimed.id, claimed.lastProjectId);
+                submit(claimed);
+                job = claimed;
+            }
+        }
+        return toDto(job);
+    }
+
+    /**
+     * Current state of a job, or null if it does not exist.
+     */
+    @Transactional
+    public EmbeddingJobDto find(Long jobId) {
+        EmbeddingJob job = EmbeddingJob.findById(jobId);
+        return job == null ? null : toDto(job);
+    }
+
+    @Transactional
+    public List<EmbeddingJobDto> recent() {
+        return EmbeddingJob.findRecent(RECENT_JOBS).stream().map(this::toDto).toList();
+    }
+
+    /**
+     * Cancel a job on whichever node runs it. The status changes at once; the owner stops
+     * after the page in flight, when its checkpoint reads the new status.
+     *
+     * @return false if the job is not running
+     */
+    @Transactional
+    public boolean cancel(Long jobId) {
+        EmbeddingJob job = EmbeddingJob.findById(jobId, LockModeType.PESSIMISTIC_WRITE);
+        if (job == null || job.status != EmbeddingJob.Status.RUNNING) {
+            return false;
+        }
+        job.status = EmbeddingJob.Status.CANCELLED;
+        job.finishedAt = Instant.now();
+        job.leaseUntil = null;
+        RunningJob handle = running.get(jobId);
+        if (handle != null) {
+            handle.cancelled().set(true);
+        }
+        return true;
+    }
+
+    @Transactional
+    List<EmbeddingJob> findRunningJobs() {
+        return EmbeddingJob.findRunning();
+    }
+
+    @Transactional
+    EmbeddingJob createJob() {
+        EmbeddingJob job = new EmbeddingJob();
+        job.total = (int) Project.count();
+        job.owner = nodeId;
+        job.leaseUntil = Instant.now().plus(lease);
+        job.persist();
+        LOG.infof("Created embedding job %d for %d projects", job.id, job.total);
+        return job;
+    }
+
+    /**
+     * Take the lease of a running job if it is free, expired or already ours.
+     *
+     * @return the claimed job, or null if it finished or another node holds the lease
+     */
+    @Transactional
+    EmbeddingJob claim(long jobId) {
+        EmbeddingJob job = EmbeddingJob.findById(jobId, LockModeType.PESSIMISTIC_WRITE);
+        if (job == null || job.status != EmbeddingJob.Status.RUNNING) {
+            return null;
+        }
+        Instant now = Instant.now();
+        boolean held = job.owner != null && !nodeId.equals(job.owner)
+                && job.leaseUntil != null && job.leaseUntil.isAfter(now);
+        if (held) {
+            return null;
+        }
+        job.owner = nodeId;
+        job.leaseUntil = now.plus(lease);
+        return job;
+    }
+
+    /**
+     * Give up the lease so that another node can resume the job right away.
+     */
+    @Transactional
+    void release(long jobId) {
+        EmbeddingJob job = EmbeddingJob.findById(jobId, LockModeType.PESSIMISTIC_WRITE);
+        if (job != null && nodeId.equals(job.owner)) {
+            job.owner = null;
+            job.leaseUntil = null;
+        }
+    }
+
+    /**
+     * Persist progress and renew the lease. Signals the job to stop if it was cancelled
+     * or is no longer ours; the status written by the other party is kept.
+     */
+    @Transactional
+    void checkpoint(long jobId, RunningJob handle, EmbeddingReindexService.Result soFar) {
+        EmbeddingJob job = EmbeddingJob.findById(jobId, LockModeType.PESSIMISTIC_WRITE);
+        if (job == null || !nodeId.equals(job.owner)) {
+            handle.cancelled().set(true);
+            return;
+        }
+        job.processed = handle.processedBefore() + soFar.succeeded() + soFar.skipped();
+        job.failed = handle.failedBefore() + soFar.failed();
+        job.lastProjectId = soFar.lastId();
+        if (job.status == EmbeddingJob.Status.RUNNING) {
+            job.leaseUntil = Instant.now().plus(lease);
+        } else {
+            handle.cancelled().set(true);
+        }
+    }
+
+    /**
+     * Record the outcome unless the job was cancelled or taken over meanwhile.
+     */
+    @Transactional
+    void finish(long jobId, EmbeddingJob.Status status, String error) {
+        EmbeddingJob job = EmbeddingJob.findById(jobId, LockModeType.PESSIMISTIC_WRITE);
+        if (job == null || !nodeId.equals(job.owner)) {
+            return;
+        }
+        job.leaseUntil = null;
+        if (job.status != EmbeddingJob.Status.RUNNING) {
+            return;
+        }
+        job.status = status;
+        job.error = error;
+        job.finishedAt = Instant.now();
+    }
+
+    private void submit(EmbeddingJob job) {
+        RunningJob handle = new RunningJob(new AtomicBoolean(), System.nanoTime(), job.processed, job.failed);
+        running.put(job.id, handle);
+        long jobId = job.id;
+        long afterId = job.lastProjectId;
+
+        executorService.submit(() -> {
+            try {
+                EmbeddingReindexService.Result result = reindexService.reindex(afterId, new EmbeddingReindexService.Progress() {
+                    @Override
+                    public boolean isCancelled() {
+                        return handle.cancelled().get();
+                    }
+
+                    @Override
+                    public void onCheckpoint(EmbeddingReindexService.Result soFar) {
+                        checkpoint(jobId, handle, soFar);
+                    }
+                });
+                checkpoint(jobId, handle, result);
+                finish(jobId, handle.cancelled().get() ? EmbeddingJob.Status.CANCELLED : EmbeddingJob.Status.COMPLETED, null);
+                LOG.infof("Embedding job %d %s", jobId, handle.cancelled().get() ? "stopped" : "completed");
+            } catch (Exception e) {
+                LOG.errorf(e, "Embedding job %d failed", jobId);
+                finish(jobId, EmbeddingJob.Status.FAILED, e.getMessage());
+            } finally {
+                running.remove(jobId);
+                // Pick up whatever was written, including partial runs
+                embeddingIndex.reload();
+            }
+        });
+    }
+
+    private EmbeddingJobDto toDto(EmbeddingJob job) {
+        RunningJob handle = running.get(job.id);
+        Double throughput = null;
+        if (handle != null) {
+            double seconds = (System.nanoTime() - handle.startedNanos()) / 1e9;
+            int done = job.processed + job.failed - handle.processedBefore() - handle.failedBefore();
+            if (seconds > 0 && done > 0) {
+                throughput = done / seconds;
+            }
+        }
+        return EmbeddingJobDto.from(job, throughput);
+    }
+
+    /**
+     * In-memory state of a job executing in this instance; counters are those persisted when it (re)started.
+     */
+    record RunningJob(AtomicBoolean cancelled, long startedNanos, int processedBefore, int failedBefore) {}
+}
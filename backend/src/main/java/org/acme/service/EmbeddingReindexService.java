@@ -0,0 +1,260 @@
+package org.acme.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.acme.util.VectorUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk re-embedding of the project catalog.
+ * Projects are read page by page with a keyset cursor on id, their texts are sent to GigaChat
+ * in batches, and up to {@code app.embedding.reindex.concurrency} batches are in flight at once
+ * on the virtual executor. Each batch is written back with a single JDBC batch update.
+ * Projects whose text fingerprint and model match the stored ones are skipped without an API call.
+ */
+@ApplicationScoped
+public class EmbeddingReindexService {
+
+    private static final Logger LOG = Logger.getLogger(EmbeddingReindexService.class);
+    private static final String UPDATE_SQL =
+            "UPDATE projects SET embedding_bin = ?, embedding_hash = ?, embedding_model = ? WHERE id = ?";
+    private static final String TEXT_COLUMNS = "p.id, p.title, p.goal, p.keyTasks, p.tags, p.embeddingHash, p.embeddingModel";
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    GigaChatService gigaChatService;
+
+    @Inject
+    @Named("virtualExecutor")
+    ExecutorService executorService;
+
+    @ConfigProperty(name = "app.embedding.reindex.page-size", defaultValue = "256")
+    int pageSize;
+
+    @ConfigProperty(name = "app.embedding.reindex.batch-size", defaultValue = "16")
+    int batchSize;
+
+    @ConfigProperty(name = "app.embedding.reindex.concurrency", defaultValue = "4")
+    int concurrency;
+
+    /**
+     * Re-embed every project with an id greater than {@code afterId}.
+     * Blocks until all batches have been written.
+     *
+     * @param afterId keyset cursor to start after, 0 for the whole catalog
+     * @return counts of embedded, skipped and failed projects
+     */
+    public Result reindex(long afterId) throws InterruptedException {
+        return reindex(afterId, Progress.NONE);
+    }
+
+    /**
+     * Re-embed every project with an id greater than {@code afterId}, reporting a checkpoint after each page.
+     * A checkpoint is only reported once every batch of the page has finished, so its cursor is safe to resume from.
+     * Cancellation is checked between pages.
+     *
+     * @param afterId keyset cursor to start after, 0 for the whole catalog
+     * @param progress checkpoint and cancellation callbacks
+     * @return counts of embedded, skipped and failed projects, and the cursor reached
+     */
+    public Result reindex(long afterId, Progress progress) throws InterruptedException {
+        long start = System.nanoTime();
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int skipped = 0;
+
+        long cursor = afterId;
+        try {
+            while (!progress.isCancelled()) {
+                List<ProjectText> page = loadPage(cursor, pageSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                List<ProjectText> pending = new ArrayList<>(page.size());
+                for (ProjectText text : page) {
+                    // Nothing to embed, or the stored embedding already matches the text and model
+                    if (text.text().isBlank() || text.current()) {
+                        skipped++;
+                    } else {
+                        pending.add(text);
+                    }
+                }
+
+                for (int from = 0; from < pending.size(); from += batchSize) {
+                    List<ProjectText> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+                    // Backpressure: paging stops while the API is saturated
+                    inFlight.acquire();
+                    executorService.submit(() -> {
+                        try {
+                            embedBatch(batch);
+                            succeeded.addAndGet(batch.size());
+                        } catch (Exception e) {
+                            LOG.errorf(e, "Failed to embed batch of %d projects starting at ID %d",
+                                    batch.size(), batch.get(0).id());
+                            failed.addAndGet(batch.size());
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+
+                // Let the page drain before advancing the checkpoint
+                inFlight.acquire(concurrency);
+                inFlight.release(concurrency);
+                cursor = page.get(page.size() - 1).id();
+                progress.onCheckpoint(new Result(succeeded.get(), skipped, failed.get(), cursor));
+            }
+        } finally {
+            // Wait for the batches already submitted
+            inFlight.acquire(concurrency);
+            inFlight.release(concurrency);
+        }
+
+        Result result = new Result(succeeded.get(), skipped, failed.get(), cursor);
+        LOG.infof("Embeddings regenerated in %d ms: %d succeeded, %d skipped, %d failed",
+                (System.nanoTime() - start) / 1_000_000, result.succeeded(), result.skipped(), result.failed());
+        return result;
+    }
+
+    /**
+     * Next page of project texts after the cursor, ordered by id. Embeddings are not loaded.
+     */
+    @Transactional
+    public List<ProjectText> loadPage(long afterId, int limit) {
+        List<Object[]> rows = em.createQuery(
+                        "SELECT " + TEXT_COLUMNS + " FROM Project p WHERE p.id > :after ORDER BY p.id",
+                        Object[].class)
+                .setParameter("after", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+        return toTexts(rows);
+    }
+
+    /**
+     * Texts of the given projects, ordered by id. Ids that no longer exist are dropped.
+     */
+    @Transactional
+    public List<ProjectText> loadTexts(List<Long> projectIds) {
+        List<Object[]> rows = em.createQuery(
+                        "SELECT " + TEXT_COLUMNS + " FROM Project p WHERE p.id IN :ids ORDER BY p.id",
+                        Object[].class)
+                .setParameter("ids", projectIds)
+                .getResultList();
+        return toTexts(rows);
+    }
+
+    private List<ProjectText> toTexts(List<Object[]> rows) {
+        List<ProjectText> texts = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String text = gigaChatService.buildProjectText((String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+            String fingerprint = fingerprint(text);
+            boolean current = fingerprint.equals(row[5]) && gigaChatService.embeddingModel().equals(row[6]);
+            texts.add(new ProjectText((Long) row[0], text, fingerprint, current));
+        }
+        return texts;
+    }
+
+    /**
+     * SHA-256 of the embedding input, hex encoded.
+     */
+    public static String fingerprint(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Embed one batch with a single API call and store the vectors with a single JDBC batch.
+     */
+    void embedBatch(List<ProjectText> batch) {
+        List<List<Float>> embeddings = gigaChatService.generateEmbeddings(batch.stream().map(ProjectText::text).toList());
+        if (embeddings.size() != batch.size()) {
+            throw new IllegalStateException("Expected " + batch.size() + " embeddings, got " + embeddings.size());
+        }
+
+        List<byte[]> vectors = new ArrayList<>(embeddings.size());
+        for (List<Float> embedding : embeddings) {
+            vectors.add(VectorUtils.toBinary(VectorUtils.toFloatArray(embedding)));
+        }
+        storeEmbeddings(batch, vectors);
+    }
+
+    /**
+     * Write embeddings and their fingerprints back with one JDBC batch; a null vector clears the embedding.
+     */
+    @Transactional
+    void storeEmbeddings(List<ProjectText> batch, List<byte[]> vectors) {
+        String model = gigaChatService.embeddingModel();
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    byte[] vector = vectors.get(i);
+                    statement.setBytes(1, vector);
+                    statement.setString(2, vector == null ? null : batch.get(i).fingerprint());
+                    statement.setString(3, vector == null ? null : model);
+                    statement.setLong(4, batch.get(i).id());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Callbacks of a long-running re-index.
+     */
+    public interface Progress {
+
+        Progress NONE = new Progress() {
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+
+            @Override
+            public void onCheckpoint(Result soFar) {
+            }
+        };
+
+        boolean isCancelled();
+
+        /**
+         * Called after each page with the counts so far; {@code soFar.lastId()} is a safe resume point.
+         */
+        void onCheckpoint(Result soFar);
+    }
+
+    /**
+     * Text to embed for one project; {@code current} is true when the stored embedding was produced
+     * from the same text by the configured model.
+     */
+    public record ProjectText(long id, String text, String fingerprint, boolean current) {}
+
+    /**
+     * Outcome of a re-index run; {@code lastId} is the keyset cursor reached.
+     */
+    public record Result(int succeeded, int skipped, int failed, long lastId) {}
+}
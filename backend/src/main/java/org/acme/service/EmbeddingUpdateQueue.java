@@ -0,0 +1,202 @@
+package org.acme.service;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keyed, debounced queue of projects whose embedding must be regenerated.
+ * Repeated events for the same project collapse into one pending entry that becomes due once the project
+ * has been quiet for the debounce window (or the max delay has passed since the first event).
+ * A single drainer thread embeds due projects in micro-batches with one {@code generateEmbeddings} call each,
+ * so write-backs for one project never race each other.
+ * Projects of a failed batch are queued again with exponential backoff, up to {@code max-attempts};
+ * after that they are dropped and counted, and only the next edit or a full reindex embeds them.
+ */
+@ApplicationScoped
+public class EmbeddingUpdateQueue {
+
+    private static final Logger LOG = Logger.getLogger(EmbeddingUpdateQueue.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Inject
+    EmbeddingReindexService reindexService;
+
+    @Inject
+    ProjectEmbeddingIndex embeddingIndex;
+
+    @ConfigProperty(name = "app.embedding.queue.debounce-ms", defaultValue = "2000")
+    long debounceMs;
+
+    @ConfigProperty(name = "app.embedding.queue.max-delay-ms", defaultValue = "10000")
+    long maxDelayMs;
+
+    @ConfigProperty(name = "app.embedding.queue.batch-size", defaultValue = "16")
+    int batchSize;
+
+    @ConfigProperty(name = "app.embedding.queue.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    @ConfigProperty(name = "app.embedding.queue.retry-backoff-ms", defaultValue = "5000")
+    long retryBackoffMs;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Thread drainer;
+    private volatile boolean running;
+
+    void onStart(@Observes StartupEvent ev) {
+        running = true;
+        drainer = Thread.ofVirtual().name("embedding-queue").start(this::drainLoop);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        Thread thread = drainer;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Schedule the project for re-embedding, merging with any pending request for it.
+     */
+    public void enqueue(long projectId) {
+        long now = System.nanoTime();
+        pending.merge(projectId, new Pending(now, now + TimeUnit.MILLISECONDS.toNanos(debounceMs), 1),
+                (previous, next) -> new Pending(previous.firstNanos(),
+                        Math.min(next.dueNanos(), previous.firstNanos() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs)),
+                        1));
+        LockSupport.unpark(drainer);
+    }
+
+    /**
+     * Drop a pending request, e.g. because the project was deleted.
+     */
+    public void discard(long projectId) {
+        pending.remove(projectId);
+    }
+
+    /**
+     * Number of projects waiting to be embedded.
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Number of projects given up on after {@code max-attempts} failed embeddings since startup.
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    private void drainLoop() {
+        while (running) {
+            long now = System.nanoTime();
+            Map<Long, Pending> due = new LinkedHashMap<>();
+            long nextDue = Long.MAX_VALUE;
+            for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+                long dueNanos = entry.getValue().dueNanos();
+                if (dueNanos - now <= 0) {
+                    // Only take the entry if no newer event re-armed it meanwhile
+                    if (pending.remove(entry.getKey(), entry.getValue())) {
+                        due.put(entry.getKey(), entry.getValue());
+                    }
+                } else {
+                    nextDue = Math.min(nextDue, dueNanos);
+                }
+            }
+
+            List<Long> dueIds = new ArrayList<>(due.keySet());
+            for (int from = 0; from < dueIds.size(); from += batchSize) {
+                List<Long> batch = dueIds.subList(from, Math.min(from + batchSize, dueIds.size()));
+                if (!process(batch)) {
+                    batch.forEach(projectId -> retry(projectId, due.get(projectId).attempt()));
+                }
+            }
+
+            if (due.isEmpty()) {
+                LockSupport.parkNanos(this, nextDue == Long.MAX_VALUE ? IDLE_PARK_NANOS : nextDue - System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Embed one batch and refresh the index.
+     *
+     * @return false if the embeddings could not be generated or stored
+     */
+    private boolean process(List<Long> projectIds) {
+        boolean embedded = true;
+        try {
+            List<EmbeddingReindexService.ProjectText> texts = reindexService.loadTexts(projectIds);
+            List<EmbeddingReindexService.ProjectText> embeddable = new ArrayList<>(texts.size());
+            List<EmbeddingReindexService.ProjectText> blank = new ArrayList<>();
+            for (EmbeddingReindexService.ProjectText text : texts) {
+                if (text.current()) {
+                    // Only fields outside the embedded text changed
+                    continue;
+                }
+                (text.text().isBlank() ? blank : embeddable).add(text);
+            }
+
+            if (!embeddable.isEmpty()) {
+                reindexService.embedBatch(embeddable);
+            }
+            if (!blank.isEmpty()) {
+                reindexService.storeEmbeddings(blank, Collections.nCopies(blank.size(), null));
+            }
+            LOG.debugf("Embedded %d projects in one batch", (Object) embeddable.size());
+        } catch (Exception e) {
+            LOG.errorf(e, "Failed to generate embeddings for projects %s", projectIds);
+            embedded = false;
+        }
+
+        for (Long projectId : projectIds) {
+            try {
+                embeddingIndex.refresh(projectId);
+            } catch (Exception e) {
+                LOG.errorf(e, "Failed to refresh embedding index for project ID %d", projectId);
+            }
+        }
+        return embedded;
+    }
+
+    /**
+     * Queue a failed project again after a backoff that doubles with every attempt, or drop it after the last one.
+     * A newer edit queued meanwhile wins and starts over.
+     */
+    private void retry(long projectId, int attempt) {
+        if (attempt >= maxAttempts) {
+            long total = dropped.incrementAndGet();
+            LOG.errorf("Giving up on embedding project ID %d after %d attempts (%d dropped so far)",
+                    projectId, attempt, total);
+            return;
+        }
+        long now = System.nanoTime();
+        long backoff = TimeUnit.MILLISECONDS.toNanos(retryBackoffMs) << Math.min(attempt - 1, 10);
+        pending.putIfAbsent(projectId, new Pending(now, now + backoff, attempt + 1));
+    }
+
+    /**
+     * First event time and the time the entry becomes due, both in {@link System#nanoTime()} units,
+     * and the number of the embedding attempt it is for, starting at 1.
+     */
+    private record Pending(long firstNanos, long dueNanos, int attempt) {}
+}
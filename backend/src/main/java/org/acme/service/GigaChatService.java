@@ -20,14 +20,16 @@ import java.util.List;
 public class GigaChatService {
 
     private static final Logger LOG = Logger.getLogger(GigaChatService.class);
-    private static final String EMBEDDING_MODEL = "Embeddings";
 
     private final GigaChatClient client;
+    private final String embeddingModel;
 
     public GigaChatService(
             @ConfigProperty(name = "gigachat.auth.key") String authKey,
-            @ConfigProperty(name = "gigachat.verify.ssl", defaultValue = "false") boolean verifySsl
+            @ConfigProperty(name = "gigachat.verify.ssl", defaultValue = "false") boolean verifySsl,
+            @ConfigProperty(name = "gigachat.embedding.model", defaultValue = "Embeddings") String embeddingModel
     ) {
+        this.embeddingModel = embeddingModel;
         this.client = GigaChatClient.builder()
                 .verifySslCerts(verifySsl)
                 .logRequests(false)
@@ -44,6 +46,13 @@ public class GigaChatService {
         LOG.info("GigaChatService initialized");
     }
 
+    /**
+     * Name of the embedding model; stored with each embedding so a model change marks it stale.
+     */
+    public String embeddingModel() {
+        return embeddingModel;
+    }
+
     /**
      * Generate embedding vector for a single text input.
      *
@@ -58,7 +67,7 @@ public class GigaChatService {
 
         try {
             EmbeddingRequest request = EmbeddingRequest.builder()
-                    .model(EMBEDDING_MODEL)
+                    .model(embeddingModel)
                     .input(List.of(text))
                     .build();
 
@@ -90,7 +99,7 @@ public class GigaChatService {
 
         try {
             EmbeddingResponse response = client.embeddings(EmbeddingRequest.builder()
-                    .model(EMBEDDING_MODEL)
+                    .model(embeddingModel)
                     .input(texts)
                     .build());
 
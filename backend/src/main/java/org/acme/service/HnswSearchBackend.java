@@ -0,0 +1,234 @@
+package org.acme.service;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.acme.util.HnswGraph;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Approximate search backend backed by an in-process HNSW graph.
+ * The graph follows {@link ProjectEmbeddingIndex} incrementally, so inserts and deletes are driven
+ * by the same project events. It is only built when selected via {@code app.search.backend=hnsw}
+ * or when recall comparison against the exact scan is enabled.
+ */
+@ApplicationScoped
+public class HnswSearchBackend implements VectorSearchBackend, ProjectEmbeddingIndex.Listener {
+
+    private static final Logger LOG = Logger.getLogger(HnswSearchBackend.class);
+    private static final long SEED = 42L;
+    private static final double MAX_DELETED_FRACTION = 0.25;
+    private static final int RECALL_LOG_INTERVAL = 100;
+
+    @ConfigProperty(name = "app.search.backend", defaultValue = "exact")
+    String backend;
+
+    @ConfigProperty(name = "app.search.hnsw.m", defaultValue = "16")
+    int m;
+
+    @ConfigProperty(name = "app.search.hnsw.ef-construction", defaultValue = "200")
+    int efConstruction;
+
+    @ConfigProperty(name = "app.search.hnsw.ef-search", defaultValue = "100")
+    int efSearch;
+
+    @ConfigProperty(name = "app.search.hnsw.compare-exact", defaultValue = "false")
+    boolean compareExact;
+
+    @ConfigProperty(name = "app.search.hnsw.compare-sample-rate", defaultValue = "0.1")
+    double compareSampleRate;
+
+    @Inject
+    ProjectEmbeddingIndex embeddingIndex;
+
+    @Inject
+    @Named("virtualExecutor")
+    ExecutorService executorService;
+
+    private volatile HnswGraph graph;
+    private volatile HnswGraph building;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong recallSamples = new AtomicLong();
+    private final DoubleAdder recallSum = new DoubleAdder();
+
+    // Runs after ProjectEmbeddingIndex has loaded
+    void onStart(@Observes @Priority(3000) StartupEvent ev) {
+        if (!isEnabled()) {
+            return;
+        }
+        embeddingIndex.addListener(this);
+        rebuild();
+    }
+
+    /**
+     * Whether the graph is maintained at all.
+     */
+    public boolean isEnabled() {
+        return name().equals(backend) || compareExact;
+    }
+
+    /**
+     * Whether the graph has been built and can serve queries.
+     */
+    public boolean isReady() {
+        return graph != null;
+    }
+
+    @Override
+    public String name() {
+        return "hnsw";
+    }
+
+    @Override
+    public List<Hit> search(float[] query, int k, boolean publishedOnly) {
+        HnswGraph current = graph;
+        if (current == null) {
+            throw new IllegalStateException("HNSW index is not built");
+        }
+
+        long[] ids = new long[k];
+        float[] distances = new float[k];
+        int count = current.search(query, k, efSearch,
+                publishedOnly ? embeddingIndex::isPublished : null, ids, distances);
+
+        List<Hit> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hits.add(new Hit(ids[i], distances[i]));
+        }
+
+        return hits;
+    }
+
+    /**
+     * Compare HNSW against the exact scan for a sampled share of queries, off the request path.
+     * The result the caller has already computed is reused; pass null for the side to be computed here.
+     */
+    public void compareInBackground(float[] query, int k, boolean publishedOnly,
+                                    List<Hit> approximate, List<Hit> exact) {
+        if (!compareExact || ThreadLocalRandom.current().nextDouble() >= compareSampleRate) {
+            return;
+        }
+        executorService.submit(() -> {
+            try {
+                recordRecall(approximate != null ? approximate : search(query, k, publishedOnly),
+                        exact != null ? exact : embeddingIndex.search(query, k, publishedOnly));
+            } catch (Exception e) {
+                LOG.debug("HNSW recall comparison failed", e);
+            }
+        });
+    }
+
+    /**
+     * Mean recall@K of approximate results against the exact scan, or NaN if no comparisons ran.
+     */
+    public double averageRecall() {
+        long samples = recallSamples.get();
+        return samples == 0 ? Double.NaN : recallSum.sum() / samples;
+    }
+
+    @Override
+    public void onPut(long projectId, float[] embedding) {
+        HnswGraph current = graph;
+        if (current != null) {
+            // Re-inserting an existing id tombstones its previous node
+            current.insert(projectId, embedding);
+        }
+        // Changes that land while a rebuild is copying the index must reach the new graph too
+        HnswGraph next = building;
+        if (next != null) {
+            next.insert(projectId, embedding);
+        }
+        rebuildIfFragmented(current);
+    }
+
+    @Override
+    public void onRemove(long projectId) {
+        HnswGraph next = building;
+        if (next != null) {
+            next.delete(projectId);
+        }
+        HnswGraph current = graph;
+        if (current != null && current.delete(projectId)) {
+            rebuildIfFragmented(current);
+        }
+    }
+
+    @Override
+    public void onReload() {
+        executorService.submit(this::rebuild);
+    }
+
+    /**
+     * Build a fresh graph from the exact index and swap it in. Concurrent requests collapse into one.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            HnswGraph fresh = new HnswGraph(ProjectEmbeddingIndex.DIMENSION, m, efConstruction, SEED);
+            building = fresh;
+            embeddingIndex.forEach(fresh::insert);
+            graph = fresh;
+            LOG.infof("HNSW index built: %d vectors in %d ms (M=%d, efConstruction=%d, efSearch=%d)",
+                    fresh.size(), (System.nanoTime() - start) / 1_000_000, m, efConstruction, efSearch);
+        } catch (Exception e) {
+            LOG.error("Failed to build HNSW index", e);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Rebuild in the background once tombstones make up too much of the graph.
+     */
+    private void rebuildIfFragmented(HnswGraph current) {
+        if (current == null || rebuilding.get()) {
+            return;
+        }
+        int deleted = current.deletedCount();
+        if (deleted > MAX_DELETED_FRACTION * (current.size() + deleted)) {
+            executorService.submit(this::rebuild);
+        }
+    }
+
+    private void recordRecall(List<Hit> approximate, List<Hit> exact) {
+        if (exact.isEmpty()) {
+            return;
+        }
+        Set<Long> expected = new HashSet<>();
+        for (Hit hit : exact) {
+            expected.add(hit.projectId());
+        }
+        int found = 0;
+        for (Hit hit : approximate) {
+            if (expected.contains(hit.projectId())) {
+                found++;
+            }
+        }
+        double recall = (double) found / exact.size();
+        recallSum.add(recall);
+        long samples = recallSamples.incrementAndGet();
+        if (samples % RECALL_LOG_INTERVAL == 0) {
+            LOG.infof("HNSW recall@k vs exact: last=%.3f, mean=%.3f over %d queries", recall, averageRecall(), samples);
+        } else {
+            LOG.debugf("HNSW recall@%d vs exact: %.3f", (Object) exact.size(), recall);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.acme.service;
+
+import io.quarkus.redis.datasource.codecs.Codec;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Base for the Redis cache value codecs. Counts encoded entries and their payload size.
+ */
+public abstract class MeteredCodec implements Codec {
+
+    private final LongAdder entries = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    /**
+     * Short name used in the payload report.
+     */
+    public abstract String name();
+
+    protected abstract byte[] encodeValue(Object item);
+
+    protected abstract Object decodeValue(byte[] item);
+
+    @Override
+    public final byte[] encode(Object item) {
+        byte[] payload = encodeValue(item);
+        entries.increment();
+        bytes.add(payload.length);
+        return payload;
+    }
+
+    @Override
+    public final Object decode(byte[] item) {
+        return decodeValue(item);
+    }
+
+    public PayloadStats payloadStats() {
+        long count = entries.sum();
+        long total = bytes.sum();
+        return new PayloadStats(count, total, count == 0 ? 0 : total / count);
+    }
+
+    /**
+     * Entries written since startup, their total and average size in bytes.
+     */
+    public record PayloadStats(long entries, long bytes, long averageBytes) {}
+}
@@ -0,0 +1,71 @@
+package org.acme.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.transaction.Transactional;
+import org.acme.util.VectorUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Database-side search backend: ranks with pgvector's {@code <->} operator served by the HNSW
+ * index from V4, applying catalog filters in the same statement. Only ids and distances cross
+ * the wire. Selected with {@code app.search.backend=pgvector} for benchmarking against the in-JVM scan.
+ */
+@ApplicationScoped
+public class PgVectorSearchBackend implements VectorSearchBackend {
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "app.search.pgvector.ef-search", defaultValue = "100")
+    int efSearch;
+
+    @Override
+    public String name() {
+        return "pgvector";
+    }
+
+    @Override
+    @Transactional
+    public List<Hit> search(float[] query, int k, boolean publishedOnly) {
+        return search(query, k, publishedOnly ? SemanticSearchFilter.PUBLISHED : SemanticSearchFilter.NONE);
+    }
+
+    /**
+     * Find the K closest projects that pass the filter, ranked and limited by PostgreSQL.
+     * Distances are squared to match the in-JVM backends.
+     */
+    @Transactional
+    public List<Hit> search(float[] query, int k, SemanticSearchFilter filter) {
+        // Candidate list size of the HNSW index scan; must be at least K to return K rows
+        em.createNativeQuery("SET LOCAL hnsw.ef_search = " + Math.max(efSearch, k)).executeUpdate();
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, embedding <-> CAST(?1 AS vector) FROM projects WHERE embedding IS NOT NULL");
+        List<Object> params = new ArrayList<>();
+        params.add(VectorUtils.toVectorString(query));
+
+        filter.appendSql(sql, params);
+        params.add(k);
+        sql.append(" ORDER BY embedding <-> CAST(?1 AS vector) LIMIT ?").append(params.size());
+
+        Query nativeQuery = em.createNativeQuery(sql.toString());
+        for (int i = 0; i < params.size(); i++) {
+            nativeQuery.setParameter(i + 1, params.get(i));
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = nativeQuery.getResultList();
+        List<Hit> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            float distance = ((Number) row[1]).floatValue();
+            hits.add(new Hit(((Number) row[0]).longValue(), distance * distance));
+        }
+        return hits;
+    }
+}
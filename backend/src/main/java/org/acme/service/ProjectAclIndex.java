@@ -0,0 +1,182 @@
+package org.acme.service;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.acme.entity.Project;
+import org.acme.event.ProjectEvent;
+import org.acme.util.LongLongMap;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory access-control index of all projects: id → (mentor id, status), packed into one long per project.
+ * Ownership and visibility checks become a map lookup instead of loading the project. Loaded at startup and kept
+ * in sync through {@link ProjectEvent}s. Changes made on other nodes raise no local event, so every entry is
+ * re-read from the database once it is older than {@code app.auth.project-acl.ttl}; a project missing from the
+ * index is read on first use. Mutating endpoints never decide on a cached entry: those that load the project
+ * check the entity, the others use {@link #findCurrent}.
+ */
+@ApplicationScoped
+public class ProjectAclIndex {
+
+    private static final Logger LOG = Logger.getLogger(ProjectAclIndex.class);
+
+    private static final String PROJECTION = "SELECT p.id, p.mentor.id, p.status FROM Project p";
+    private static final Project.Status[] STATUSES = Project.Status.values();
+    private static final int STATUS_BITS = 2;
+    private static final long MISSING = -1;
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "app.auth.project-acl.ttl", defaultValue = "60s")
+    Duration ttl;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongMap entries = new LongLongMap(1024);
+    // System.nanoTime() at which each entry was read from the database
+    private final LongLongMap loadedAt = new LongLongMap(1024);
+
+    /**
+     * Who owns a project and whether it is published.
+     */
+    public record Access(long mentorId, Project.Status status) {
+
+        public boolean isMentor(Long userId) {
+            return userId != null && mentorId == userId;
+        }
+
+        public boolean isPublished() {
+            return status == Project.Status.PUBLISHED;
+        }
+
+        /**
+         * Whether a non-admin user may see the project: published, or their own.
+         */
+        public boolean isVisibleTo(Long userId) {
+            return isPublished() || isMentor(userId);
+        }
+    }
+
+    // Runs after DataSeeder
+    void onStart(@Observes @Priority(3000) StartupEvent ev) {
+        reload();
+    }
+
+    /**
+     * Rebuild the whole index from the database.
+     */
+    @Transactional
+    public void reload() {
+        List<Object[]> rows = em.createQuery(PROJECTION, Object[].class).getResultList();
+
+        long now = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            loadedAt.clear();
+            for (Object[] row : rows) {
+                entries.put((Long) row[0], pack(row));
+                loadedAt.put((Long) row[0], now);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.infof("Project ACL index loaded: %d projects", rows.size());
+    }
+
+    /**
+     * Access entry of a project, or null if there is no such project. May be up to the TTL old
+     * for changes made on other nodes.
+     */
+    public Access find(Long projectId) {
+        long packed;
+        long loaded;
+        lock.readLock().lock();
+        try {
+            packed = entries.get(projectId, MISSING);
+            loaded = loadedAt.get(projectId, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (packed == MISSING || System.nanoTime() - loaded > ttl.toNanos()) {
+            return findCurrent(projectId);
+        }
+        return unpack(packed);
+    }
+
+    /**
+     * Access entry read from the database, or null if there is no such project. The index is updated with it.
+     */
+    public Access findCurrent(Long projectId) {
+        Object[] row = load(projectId);
+        store(projectId, row);
+        return row == null ? null : unpack(pack(row));
+    }
+
+    /**
+     * Re-read one project, or drop it if it no longer exists.
+     */
+    @Transactional
+    public void refresh(Long projectId) {
+        store(projectId, load(projectId));
+    }
+
+    void onProjectEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProjectEvent event) {
+        try {
+            if (event.getType() == ProjectEvent.EventType.DELETED) {
+                store(event.getProjectId(), null);
+            } else {
+                refresh(event.getProjectId());
+            }
+        } catch (Exception e) {
+            LOG.errorf(e, "Failed to update ACL index for project ID %d", event.getProjectId());
+            // Better a lookup from the database than a stale decision
+            store(event.getProjectId(), null);
+        }
+    }
+
+    private Object[] load(Long projectId) {
+        return em.createQuery(PROJECTION + " WHERE p.id = ?1", Object[].class)
+                .setParameter(1, projectId)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Put a freshly loaded row, or remove the entry if the row is null.
+     */
+    private void store(Long projectId, Object[] row) {
+        lock.writeLock().lock();
+        try {
+            if (row == null) {
+                entries.remove(projectId);
+                loadedAt.remove(projectId);
+            } else {
+                entries.put(projectId, pack(row));
+                loadedAt.put(projectId, System.nanoTime());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Access unpack(long packed) {
+        return new Access(packed >>> STATUS_BITS, STATUSES[(int) (packed & ((1 << STATUS_BITS) - 1))]);
+    }
+
+    private static long pack(Object[] row) {
+        return ((Long) row[1] << STATUS_BITS) | ((Project.Status) row[2]).ordinal();
+    }
+}
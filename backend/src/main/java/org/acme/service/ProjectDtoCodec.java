@@ -0,0 +1,167 @@
+package org.acme.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.dto.ProjectDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary form of cached {@link ProjectDto}s: fields in declaration order, length-prefixed UTF-8
+ * strings, and the whole body deflated once it is large enough for compression to pay off.
+ * The first byte is the format: plain or deflated. Changing the field layout needs a new format byte.
+ */
+@ApplicationScoped
+public class ProjectDtoCodec extends MeteredCodec {
+
+    static final byte FORMAT_PLAIN = 1;
+    static final byte FORMAT_DEFLATED = 2;
+    static final int COMPRESSION_THRESHOLD = 512;
+    private static final int NULL_LENGTH = -1;
+
+    @Override
+    public String name() {
+        return "project-dto";
+    }
+
+    @Override
+    public boolean canHandle(Type clazz) {
+        return clazz == ProjectDto.class;
+    }
+
+    @Override
+    protected byte[] encodeValue(Object item) {
+        try {
+            byte[] body = writeBody((ProjectDto) item);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length + 1);
+            if (body.length < COMPRESSION_THRESHOLD) {
+                out.write(FORMAT_PLAIN);
+                out.write(body);
+            } else {
+                out.write(FORMAT_DEFLATED);
+                try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+                    deflater.write(body);
+                }
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected Object decodeValue(byte[] item) {
+        ByteArrayInputStream raw = new ByteArrayInputStream(item, 1, item.length - 1);
+        InputStream body = switch (item[0]) {
+            case FORMAT_PLAIN -> raw;
+            case FORMAT_DEFLATED -> new InflaterInputStream(raw);
+            default -> throw new IllegalArgumentException("Unknown ProjectDto cache format " + item[0]);
+        };
+        try (DataInputStream in = new DataInputStream(body)) {
+            return readBody(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] writeBody(ProjectDto dto) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeLong(out, dto.id());
+        writeLong(out, dto.mentorId());
+        writeString(out, dto.mentorName());
+        writeString(out, dto.mentorEmail());
+        writeString(out, dto.title());
+        writeString(out, dto.goal());
+        writeString(out, dto.keyTasks());
+        writeString(out, dto.valueText());
+        writeString(out, dto.requiredSkills());
+        writeString(out, dto.difficulty());
+        writeString(out, dto.tags());
+        writeString(out, dto.curriculumMatch());
+        out.writeByte((dto.thesisOk() ? 1 : 0) | (dto.practiceOk() ? 2 : 0) | (dto.courseworkOk() ? 4 : 0));
+        writeString(out, dto.responsibilityBoundaries());
+        writeString(out, dto.contactPolicy());
+        writeString(out, dto.status());
+        writeInstant(out, dto.createdAt());
+        writeInstant(out, dto.updatedAt());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static ProjectDto readBody(DataInputStream in) throws IOException {
+        Long id = readLong(in);
+        Long mentorId = readLong(in);
+        String mentorName = readString(in);
+        String mentorEmail = readString(in);
+        String title = readString(in);
+        String goal = readString(in);
+        String keyTasks = readString(in);
+        String valueText = readString(in);
+        String requiredSkills = readString(in);
+        String difficulty = readString(in);
+        String tags = readString(in);
+        String curriculumMatch = readString(in);
+        int flags = in.readByte();
+        String responsibilityBoundaries = readString(in);
+        String contactPolicy = readString(in);
+        String status = readString(in);
+        Instant createdAt = readInstant(in);
+        Instant updatedAt = readInstant(in);
+        return new ProjectDto(id, mentorId, mentorName, mentorEmail, title, goal, keyTasks, valueText,
+                requiredSkills, difficulty, tags, curriculumMatch,
+                (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0,
+                responsibilityBoundaries, contactPolicy, status, createdAt, updatedAt);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+}
@@ -0,0 +1,450 @@
+package org.acme.service;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.acme.entity.Project;
+import org.acme.event.ProjectEvent;
+import org.acme.util.OffHeapFloatMatrix;
+import org.acme.util.QuantizedMatrix;
+import org.acme.util.TopKHeap;
+import org.acme.util.VectorUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Resident in-memory index of project embeddings.
+ * All vectors live in one contiguous row-major float matrix, so a search is a single
+ * SIMD pass over primitive memory without Hibernate or pgvector text parsing.
+ * Rows are loaded from the binary {@code embedding_bin} column.
+ * Loaded once at startup and kept in sync through {@link ProjectEvent}s; changes that arrive while a reload
+ * reads its snapshot are re-read from the database after the swap, so the older snapshot cannot overwrite them.
+ * With {@code app.search.quantization.mode=int8} only int8 codes stay on the heap (about 4x smaller);
+ * a coarse pass over the codes picks candidates that are re-ranked exactly against float copies kept
+ * off-heap. This trades process memory for GC pressure: the heap and the scanned data shrink 4x, but
+ * total memory is about 1.25x the float32 mode, and a search never goes back to the database.
+ * This is the exact search backend; approximate backends follow it through {@link Listener}.
+ */
+@ApplicationScoped
+public class ProjectEmbeddingIndex implements VectorSearchBackend {
+
+    private static final Logger LOG = Logger.getLogger(ProjectEmbeddingIndex.class);
+
+    /** GigaChat Embeddings model produces 1024-dimensional vectors (see V3 migration). */
+    public static final int DIMENSION = 1024;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "app.search.quantization.mode", defaultValue = "none")
+    String quantizationMode;
+
+    @ConfigProperty(name = "app.search.quantization.rerank-factor", defaultValue = "4")
+    int rerankFactor;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Row i occupies matrix[i * DIMENSION .. (i + 1) * DIMENSION); null in int8 mode
+    private float[] matrix;
+    // Int8 codes of every row; null unless quantization is enabled
+    private QuantizedMatrix quantized;
+    // Float rows for the exact rerank, off-heap; null unless quantization is enabled
+    private OffHeapFloatMatrix rerankRows;
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private Project.Status[] statuses = new Project.Status[INITIAL_CAPACITY];
+    private int size;
+    private final Map<Long, Integer> rowById = new HashMap<>();
+    // Incremented whenever a reload starts; guarded by the write lock together with the two fields below
+    private volatile long reloadGeneration;
+    private boolean reloading;
+    private final Set<Long> changedDuringReload = new HashSet<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Receives index changes after they are applied, outside the index lock.
+     */
+    public interface Listener {
+        void onPut(long projectId, float[] embedding);
+
+        void onRemove(long projectId);
+
+        void onReload();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @PostConstruct
+    void init() {
+        if ("int8".equals(quantizationMode)) {
+            quantized = new QuantizedMatrix(DIMENSION, INITIAL_CAPACITY);
+            rerankRows = new OffHeapFloatMatrix(DIMENSION, INITIAL_CAPACITY);
+        } else {
+            matrix = new float[INITIAL_CAPACITY * DIMENSION];
+        }
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        reload();
+    }
+
+    /**
+     * Rebuild the whole index from the database. Projects changed while the snapshot is read are re-read afterwards.
+     */
+    @Transactional
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            reloading = true;
+            reloadGeneration++;
+            changedDuringReload.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        int count;
+        List<Long> changed;
+        try {
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = em.createNativeQuery(
+                    "SELECT id, status, embedding_bin FROM projects WHERE embedding_bin IS NOT NULL"
+            ).getResultList();
+            count = rows.size();
+
+            lock.writeLock().lock();
+            try {
+                size = 0;
+                rowById.clear();
+                for (Object[] row : rows) {
+                    upsertLocked(((Number) row[0]).longValue(),
+                            Project.Status.valueOf((String) row[1]),
+                            VectorUtils.fromBinary((byte[]) row[2]));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                reloading = false;
+                changed = List.copyOf(changedDuringReload);
+                changedDuringReload.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        changed.forEach(this::refresh);
+
+        long bytes = quantized != null ? quantized.bytesFor(count) : (long) count * DIMENSION * Float.BYTES;
+        long offHeap = rerankRows != null ? rerankRows.bytesFor(count) : 0;
+        LOG.infof("Embedding index loaded: %d projects, %d KB resident, %d KB off-heap (%s)",
+                count, bytes / 1024, offHeap / 1024, quantized != null ? "int8" : "float32");
+        listeners.forEach(Listener::onReload);
+    }
+
+    /**
+     * Re-read a single project row and update or remove its entry.
+     * Called after the embedding for the project has been committed.
+     */
+    @Transactional
+    public void refresh(Long projectId) {
+        long generation = reloadGeneration;
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery(
+                "SELECT id, status, embedding_bin FROM projects WHERE id = ?1 AND embedding_bin IS NOT NULL"
+        ).setParameter(1, projectId).getResultList();
+
+        if (rows.isEmpty()) {
+            remove(projectId);
+        } else {
+            Object[] row = rows.get(0);
+            put(projectId, Project.Status.valueOf((String) row[1]), VectorUtils.fromBinary((byte[]) row[2]));
+        }
+
+        // Read before a reload that has been swapped in since; the row may be older than the snapshot
+        if (reloadedSince(generation)) {
+            refresh(projectId);
+        }
+    }
+
+    /**
+     * Insert or replace the embedding of a project.
+     */
+    public void put(Long projectId, Project.Status status, float[] embedding) {
+        boolean stored;
+        lock.writeLock().lock();
+        try {
+            stored = upsertLocked(projectId, status, embedding);
+            recordChangeLocked(projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (stored) {
+            listeners.forEach(l -> l.onPut(projectId, embedding));
+        }
+    }
+
+    /**
+     * Update the lifecycle status of an indexed project. No-op if the project has no embedding yet.
+     */
+    public void updateStatus(Long projectId, Project.Status status) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.get(projectId);
+            if (row != null) {
+                statuses[row] = status;
+            }
+            recordChangeLocked(projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a project from the index. The last row is moved into the freed slot.
+     */
+    public void remove(Long projectId) {
+        boolean removed = false;
+        lock.writeLock().lock();
+        try {
+            recordChangeLocked(projectId);
+            Integer row = rowById.remove(projectId);
+            if (row == null) {
+                return;
+            }
+            removed = true;
+            int last = size - 1;
+            if (row != last) {
+                if (quantized != null) {
+                    quantized.move(last, row);
+                    rerankRows.move(last, row);
+                } else {
+                    System.arraycopy(matrix, last * DIMENSION, matrix, row * DIMENSION, DIMENSION);
+                }
+                ids[row] = ids[last];
+                statuses[row] = statuses[last];
+                rowById.put(ids[row], row);
+            }
+            statuses[last] = null;
+            size = last;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (removed) {
+            listeners.forEach(l -> l.onRemove(projectId));
+        }
+    }
+
+    @Override
+    public String name() {
+        return "exact";
+    }
+
+    /**
+     * Exact K nearest neighbours by a full scan of the matrix.
+     * Selection uses a bounded primitive heap, so only K results are ever materialized.
+     * In int8 mode the scan is coarse and the best K * rerank-factor candidates are re-ranked exactly.
+     */
+    @Override
+    public List<Hit> search(float[] query, int k, boolean publishedOnly) {
+        if (query.length != DIMENSION) {
+            throw new IllegalArgumentException("Query embedding must have " + DIMENSION + " dimensions, got " + query.length);
+        }
+        if (quantized != null) {
+            return searchQuantized(query, k, publishedOnly);
+        }
+
+        TopKHeap heap;
+        lock.readLock().lock();
+        try {
+            heap = new TopKHeap(Math.min(k, size));
+            for (int row = 0; row < size; row++) {
+                if (publishedOnly && statuses[row] != Project.Status.PUBLISHED) {
+                    continue;
+                }
+                heap.offer(ids[row], VectorUtils.l2DistanceSquared(query, matrix, row * DIMENSION));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long[] hitIds = new long[heap.size()];
+        float[] hitDistances = new float[heap.size()];
+        int count = heap.drainSorted(hitIds, hitDistances);
+
+        List<Hit> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hits.add(new Hit(hitIds[i], hitDistances[i]));
+        }
+        return hits;
+    }
+
+    private List<Hit> searchQuantized(float[] query, int k, boolean publishedOnly) {
+        QuantizedMatrix.QueryStats stats = QuantizedMatrix.queryStats(query);
+
+        TopKHeap exact;
+        lock.readLock().lock();
+        try {
+            // Coarse pass keyed by row, so the candidates can be re-read without a lookup
+            TopKHeap coarse = new TopKHeap((int) Math.min((long) k * rerankFactor, size));
+            for (int row = 0; row < size; row++) {
+                if (publishedOnly && statuses[row] != Project.Status.PUBLISHED) {
+                    continue;
+                }
+                coarse.offer(row, quantized.distance(query, stats, row));
+            }
+
+            long[] candidateRows = new long[coarse.size()];
+            int count = coarse.drainSorted(candidateRows, new float[coarse.size()]);
+
+            // Exact rerank against the float rows of the candidates only
+            exact = new TopKHeap(Math.min(k, count));
+            float[] embedding = new float[DIMENSION];
+            for (int i = 0; i < count; i++) {
+                int row = (int) candidateRows[i];
+                exact.offer(ids[row], VectorUtils.l2DistanceSquared(query, rerankRows.get(row, embedding)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long[] hitIds = new long[exact.size()];
+        float[] hitDistances = new float[exact.size()];
+        int hitCount = exact.drainSorted(hitIds, hitDistances);
+        List<Hit> hits = new ArrayList<>(hitCount);
+        for (int i = 0; i < hitCount; i++) {
+            hits.add(new Hit(hitIds[i], hitDistances[i]));
+        }
+        return hits;
+    }
+
+    /**
+     * Whether the project is indexed and PUBLISHED.
+     */
+    public boolean isPublished(long projectId) {
+        lock.readLock().lock();
+        try {
+            Integer row = rowById.get(projectId);
+            return row != null && statuses[row] == Project.Status.PUBLISHED;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit a copy of every indexed embedding.
+     */
+    public void forEach(BiConsumer<Long, float[]> consumer) {
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < size; row++) {
+                consumer.accept(ids[row], quantized != null
+                        ? rerankRows.get(row, new float[DIMENSION])
+                        : Arrays.copyOfRange(matrix, row * DIMENSION, (row + 1) * DIMENSION));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed projects.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keep statuses in sync with publish/archive transitions and drop deleted projects.
+     * Content changes are handled by {@link ProjectSearchService} once the new embedding is stored.
+     */
+    void onProjectEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProjectEvent event) {
+        switch (event.getType()) {
+            case PUBLISHED -> updateStatus(event.getProjectId(), Project.Status.PUBLISHED);
+            case ARCHIVED -> updateStatus(event.getProjectId(), Project.Status.ARCHIVED);
+            case DELETED -> remove(event.getProjectId());
+            default -> { }
+        }
+    }
+
+    /**
+     * Remember a change that lands while a reload reads its snapshot, to be re-read after the swap.
+     */
+    private void recordChangeLocked(long projectId) {
+        if (reloading) {
+            changedDuringReload.add(projectId);
+        }
+    }
+
+    private boolean reloadedSince(long generation) {
+        lock.readLock().lock();
+        try {
+            return !reloading && generation != reloadGeneration;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean upsertLocked(long projectId, Project.Status status, float[] embedding) {
+        if (embedding.length != DIMENSION) {
+            LOG.warnf("Skipping embedding of project ID %d: expected %d dimensions, got %d",
+                    projectId, DIMENSION, embedding.length);
+            return false;
+        }
+
+        Integer row = rowById.get(projectId);
+        if (row == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowById.put(projectId, row);
+            ids[row] = projectId;
+        }
+        statuses[row] = status;
+        if (quantized != null) {
+            quantized.set(row, embedding);
+            rerankRows.set(row, embedding);
+        } else {
+            System.arraycopy(embedding, 0, matrix, row * DIMENSION, DIMENSION);
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(rows, ids.length * 2);
+        if (quantized != null) {
+            quantized.ensureCapacity(capacity);
+            rerankRows.ensureCapacity(capacity);
+        } else {
+            matrix = Arrays.copyOf(matrix, capacity * DIMENSION);
+        }
+        ids = Arrays.copyOf(ids, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+    }
+}
@@ -0,0 +1,320 @@
+package org.acme.service;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.acme.entity.Project;
+import org.acme.event.ProjectEvent;
+import org.acme.util.FacetBitmaps;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory facet index of PUBLISHED projects: a bitmap per difficulty, per flag, per tag, per skill and per mentor.
+ * Serves catalog filtering for viewers that only see published projects without building a query,
+ * together with facet counts for the UI. Loaded at startup and kept in sync through {@link ProjectEvent}s.
+ * Changes made on other nodes raise no local event, so the index is rebuilt in the background once it is
+ * older than half of {@code app.search.facets.reload-interval}; past the full interval {@link #isFresh()}
+ * is false and callers use the database instead. Events that arrive during a rebuild are replayed after it.
+ */
+@ApplicationScoped
+public class ProjectFacetIndex {
+
+    private static final Logger LOG = Logger.getLogger(ProjectFacetIndex.class);
+
+    public static final String DIFFICULTY = "difficulty";
+    public static final String THESIS = "thesis";
+    public static final String PRACTICE = "practice";
+    public static final String COURSEWORK = "coursework";
+    public static final String TAGS = "tags";
+    public static final String SKILLS = "skills";
+    public static final String MENTOR = "mentor";
+
+    private static final List<String> TRUE = List.of("true");
+    private static final String PROJECTION = "SELECT p.id, p.difficulty, p.thesisOk, p.practiceOk, p.courseworkOk, "
+            + "p.mentor.id, p.tagList, p.skillList FROM Project p WHERE p.status = ?1";
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "app.search.facets.max-values", defaultValue = "20")
+    int maxFacetValues;
+
+    @ConfigProperty(name = "app.search.facets.reload-interval", defaultValue = "60s")
+    Duration reloadInterval;
+
+    @Inject
+    @Named("virtualExecutor")
+    ExecutorService executorService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FacetBitmaps bitmaps = new FacetBitmaps();
+
+    // System.nanoTime() at which the snapshot behind the index was read
+    private volatile long loadedAt;
+    private final AtomicBoolean backgroundReload = new AtomicBoolean();
+    // Incremented whenever a rebuild starts; guarded by the write lock together with the two fields below
+    private volatile long reloadGeneration;
+    private boolean reloading;
+    private final Set<Long> changedDuringReload = new HashSet<>();
+
+    /**
+     * Catalog filters. Empty term arrays and false flags mean "not filtered".
+     */
+    public record Filter(Project.Difficulty difficulty, boolean thesis, boolean practice, boolean coursework,
+                         String[] tags, boolean allTags, String[] skills, boolean allSkills, Long mentorId) {}
+
+    /**
+     * One page of matching ids, newest first, with the total and, for a first page, facet counts.
+     * Counts of a facet ignore that facet's own filter, so the UI can offer switching to another value.
+     */
+    public record Result(List<Long> ids, int total, boolean hasMore, Map<String, Map<String, Integer>> facets) {}
+
+    // Runs after DataSeeder
+    void onStart(@Observes @Priority(3000) StartupEvent ev) {
+        reload();
+    }
+
+    /**
+     * Rebuild the whole index from the database. Projects changed while the snapshot is read are re-read afterwards.
+     */
+    @Transactional
+    public synchronized void reload() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            reloading = true;
+            reloadGeneration++;
+            changedDuringReload.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Long> changed;
+        int count;
+        try {
+            List<Object[]> rows = em.createQuery(PROJECTION, Object[].class)
+                    .setParameter(1, Project.Status.PUBLISHED)
+                    .getResultList();
+            count = rows.size();
+
+            lock.writeLock().lock();
+            try {
+                bitmaps.clear();
+                rows.forEach(this::putLocked);
+                loadedAt = started;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                reloading = false;
+                changed = List.copyOf(changedDuringReload);
+                changedDuringReload.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        changed.forEach(this::refresh);
+        LOG.infof("Facet index loaded: %d published projects", count);
+    }
+
+    /**
+     * Whether the index is recent enough to serve the catalog. Starts a background rebuild once it is
+     * half way through the reload interval; callers fall back to the database while this returns false.
+     */
+    public boolean isFresh() {
+        long age = System.nanoTime() - loadedAt;
+        if (age > reloadInterval.toNanos() / 2 && backgroundReload.compareAndSet(false, true)) {
+            executorService.submit(() -> {
+                try {
+                    reload();
+                } catch (Exception e) {
+                    LOG.error("Failed to reload facet index", e);
+                } finally {
+                    backgroundReload.set(false);
+                }
+            });
+        }
+        return age <= reloadInterval.toNanos();
+    }
+
+    /**
+     * Re-read one project and index it if it is published, or drop it otherwise.
+     */
+    @Transactional
+    public void refresh(Long projectId) {
+        long generation = reloadGeneration;
+        List<Object[]> rows = em.createQuery(PROJECTION + " AND p.id = ?2", Object[].class)
+                .setParameter(1, Project.Status.PUBLISHED)
+                .setParameter(2, projectId)
+                .getResultList();
+
+        boolean predatesSnapshot;
+        lock.writeLock().lock();
+        try {
+            if (rows.isEmpty()) {
+                bitmaps.remove(Math.toIntExact(projectId));
+            } else {
+                putLocked(rows.get(0));
+            }
+            if (reloading) {
+                changedDuringReload.add(projectId);
+            }
+            predatesSnapshot = !reloading && generation != reloadGeneration;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Read before a rebuild that has been swapped in since; the row may be older than the snapshot
+        if (predatesSnapshot) {
+            refresh(projectId);
+        }
+    }
+
+    void onProjectEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProjectEvent event) {
+        try {
+            if (event.getType() == ProjectEvent.EventType.DELETED) {
+                lock.writeLock().lock();
+                try {
+                    bitmaps.remove(Math.toIntExact(event.getProjectId()));
+                    if (reloading) {
+                        changedDuringReload.add(event.getProjectId());
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } else {
+                refresh(event.getProjectId());
+            }
+        } catch (Exception e) {
+            LOG.errorf(e, "Failed to update facet index for project ID %d", event.getProjectId());
+        }
+    }
+
+    /**
+     * Filter published projects and page through them, newest (highest id) first.
+     */
+    public Result search(Filter filter, int page, int size) {
+        return search(filter, Integer.MAX_VALUE, (long) page * size, size, true);
+    }
+
+    /**
+     * Continue a listing after the given project, without facet counts. Cost depends on the page size only.
+     */
+    public Result searchAfter(Filter filter, long afterId, int size) {
+        return search(filter, afterId, 0, size, false);
+    }
+
+    private Result search(Filter filter, long beforeId, long skip, int size, boolean withFacets) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = matching(filter, null);
+
+            List<Long> ids = new ArrayList<>(size);
+            int doc = (int) Math.min(beforeId - 1, matches.length() - 1);
+            for (doc = doc >= 0 ? matches.previousSetBit(doc) : -1; doc >= 0 && ids.size() < size;
+                 doc = matches.previousSetBit(doc - 1)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    ids.add((long) doc);
+                }
+            }
+
+            Map<String, Map<String, Integer>> facets = null;
+            if (withFacets) {
+                facets = new LinkedHashMap<>();
+                for (String facet : List.of(DIFFICULTY, THESIS, PRACTICE, COURSEWORK, TAGS, SKILLS, MENTOR)) {
+                    facets.put(facet, bitmaps.counts(facet, matching(filter, facet), maxFacetValues));
+                }
+            }
+            return new Result(ids, matches.cardinality(), doc >= 0, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The given ids that are published and pass the filter, e.g. search candidates to be ranked.
+     */
+    public Set<Long> retainMatching(Collection<Long> projectIds, Filter filter) {
+        Set<Long> result = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            BitSet matches = matching(filter, null);
+            for (Long projectId : projectIds) {
+                if (projectId <= Integer.MAX_VALUE && matches.get(projectId.intValue())) {
+                    result.add(projectId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private BitSet matching(Filter filter, String excludedFacet) {
+        BitSet result = bitmaps.docs();
+        if (filter.difficulty() != null && !DIFFICULTY.equals(excludedFacet)) {
+            bitmaps.retain(result, DIFFICULTY, List.of(filter.difficulty().name()), true);
+        }
+        if (filter.thesis() && !THESIS.equals(excludedFacet)) {
+            bitmaps.retain(result, THESIS, TRUE, true);
+        }
+        if (filter.practice() && !PRACTICE.equals(excludedFacet)) {
+            bitmaps.retain(result, PRACTICE, TRUE, true);
+        }
+        if (filter.coursework() && !COURSEWORK.equals(excludedFacet)) {
+            bitmaps.retain(result, COURSEWORK, TRUE, true);
+        }
+        if (filter.tags().length > 0 && !TAGS.equals(excludedFacet)) {
+            bitmaps.retain(result, TAGS, List.of(filter.tags()), filter.allTags());
+        }
+        if (filter.skills().length > 0 && !SKILLS.equals(excludedFacet)) {
+            bitmaps.retain(result, SKILLS, List.of(filter.skills()), filter.allSkills());
+        }
+        if (filter.mentorId() != null && !MENTOR.equals(excludedFacet)) {
+            bitmaps.retain(result, MENTOR, List.of(filter.mentorId().toString()), true);
+        }
+        return result;
+    }
+
+    private void putLocked(Object[] row) {
+        Map<String, Collection<String>> values = new HashMap<>();
+        values.put(DIFFICULTY, List.of(((Project.Difficulty) row[1]).name()));
+        if ((Boolean) row[2]) {
+            values.put(THESIS, TRUE);
+        }
+        if ((Boolean) row[3]) {
+            values.put(PRACTICE, TRUE);
+        }
+        if ((Boolean) row[4]) {
+            values.put(COURSEWORK, TRUE);
+        }
+        values.put(MENTOR, List.of(row[5].toString()));
+        values.put(TAGS, row[6] != null ? List.of((String[]) row[6]) : List.of());
+        values.put(SKILLS, row[7] != null ? List.of((String[]) row[7]) : List.of());
+        bitmaps.put(Math.toIntExact(((Number) row[0]).longValue()), values);
+    }
+}
@@ -4,21 +4,24 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.enterprise.event.TransactionPhase;
 import jakarta.inject.Inject;
-import jakarta.inject.Named;
 import jakarta.persistence.EntityManager;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.Query;
 import org.acme.entity.Project;
 import org.acme.event.ProjectEvent;
-import org.acme.util.VectorUtils;
+import org.acme.util.TermList;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for semantic search of projects using embeddings.
  * Uses GigaChat API for text vectorization and Euclidean distance for similarity.
+ * Distances are computed against the resident {@link ProjectEmbeddingIndex}, not the database.
  */
 @ApplicationScoped
 public class ProjectSearchService {
@@ -29,14 +32,22 @@ public class ProjectSearchService {
     EntityManager em;
 
     @Inject
-    GigaChatService gigaChatService;
+    QueryEmbeddingCache queryEmbeddingCache;
 
     @Inject
-    QueryEmbeddingCache queryEmbeddingCache;
+    ProjectEmbeddingIndex embeddingIndex;
+
+    @Inject
+    HnswSearchBackend hnswBackend;
 
     @Inject
-    @Named("virtualExecutor")
-    ExecutorService executorService;
+    PgVectorSearchBackend pgVectorBackend;
+
+    @ConfigProperty(name = "app.search.backend", defaultValue = "exact")
+    String backend;
+
+    @Inject
+    EmbeddingUpdateQueue updateQueue;
 
     /**
      * Perform semantic search for projects based on query text.
@@ -52,34 +63,20 @@ public class ProjectSearchService {
         }
 
         try {
-            // 1. Generate embedding for query text (with Redis caching)
-            List<Float> queryEmbeddingList = queryEmbeddingCache.getQueryEmbedding(queryText);
-            float[] queryEmbedding = VectorUtils.toFloatArray(queryEmbeddingList);
-
-            // 2. Fetch all projects with embeddings from database
-            List<Project> projects = em.createQuery(
-                    "SELECT p FROM Project p WHERE p.embedding IS NOT NULL AND p.status = 'PUBLISHED'",
-                    Project.class
-            ).getResultList();
+            // 1. Generate embedding for query text (local and Redis caching)
+            float[] queryEmbedding = queryEmbeddingCache.getQueryEmbedding(queryText);
 
-            if (projects.isEmpty()) {
+            // 2. Select the closest published projects from the resident embedding matrix
+            List<VectorSearchBackend.Hit> hits = nearest(queryEmbedding, maxResults, SemanticSearchFilter.PUBLISHED);
+            if (hits.isEmpty()) {
                 return List.of();
             }
 
-            // 3. Calculate distances and sort by similarity
-            List<Project> sortedProjects = projects.stream()
-                    .map(project -> {
-                        float[] projectEmbedding = VectorUtils.fromVectorString(project.embedding);
-                        float distance = VectorUtils.l2DistanceSquared(queryEmbedding, projectEmbedding);
-                        return new ProjectWithDistance(project, distance);
-                    })
-                    .sorted(Comparator.comparingDouble(ProjectWithDistance::distance))
-                    .limit(maxResults)
+            // 3. Load only those projects, keeping the similarity order
+            return hydrate(hits).stream()
                     .map(ProjectWithDistance::project)
                     .toList();
 
-            return sortedProjects;
-
         } catch (Exception e) {
             LOG.error("Semantic search failed", e);
             throw new RuntimeException("Semantic search failed: " + e.getMessage(), e);
@@ -87,154 +84,168 @@ public class ProjectSearchService {
     }
 
     /**
-     * Generate and store embedding for a project.
-     * Should be called when project is created or updated.
-     *
-     * @param project project to generate embedding for
+     * CDI event observer that schedules embedding generation after project transaction commits.
+     * Bursts of edits to one project are coalesced by the {@link EmbeddingUpdateQueue}.
      */
-    public void generateAndStoreEmbedding(Project project) {
-        if (project == null) {
-            throw new IllegalArgumentException("Project cannot be null");
+    public void onProjectEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProjectEvent event) {
+        if (event.getType() == ProjectEvent.EventType.DELETED) {
+            updateQueue.discard(event.getProjectId());
+            return;
         }
-
-        try {
-            // Build searchable text from project fields
-            String projectText = gigaChatService.buildProjectText(
-                    project.title,
-                    project.goal,
-                    project.keyTasks,
-                    project.tags
-            );
-
-            // Generate embedding
-            List<Float> embeddingList = gigaChatService.generateEmbedding(projectText);
-            float[] embeddingArray = VectorUtils.toFloatArray(embeddingList);
-            String vectorString = VectorUtils.toVectorString(embeddingArray);
-            project.embedding = vectorString;
-
-        } catch (Exception e) {
-            LOG.errorf(e, "Failed to generate embedding for project ID %d", project.id);
-            // Don't fail the transaction - embedding generation is not critical
-            project.embedding = null;
+        // Status transitions don't change the embedded text
+        if (!event.affectsContent()) {
+            return;
         }
+
+        updateQueue.enqueue(event.getProjectId());
     }
 
     /**
-     * Regenerate embeddings for all projects.
-     * Useful for initial setup or bulk updates.
-     * Each project is processed in its own transaction to avoid losing progress on errors.
+     * Lexical leg of a hybrid search: full-text match on the GIN-indexed {@code search_vector},
+     * ordered by {@code ts_rank}. The query is parsed with both the Russian and the English configuration.
+     * Catalog filters are part of the statement, so the candidate limit only counts rows that pass them.
+     *
+     * @param queryText search query in web search syntax (quotes, OR, -exclusion)
+     * @param maxCandidates maximum number of ids to return
+     * @param filter visibility and catalog filters
+     * @return matching project ids, best match first
      */
-    @Transactional
-    public void regenerateAllEmbeddings() {
-        List<Project> projects = em.createQuery("SELECT p FROM Project p", Project.class)
-                .getResultList();
-
-        LOG.infof("Regenerating embeddings for %d projects", projects.size());
-
-        int successCount = 0;
-        int failureCount = 0;
+    @SuppressWarnings("unchecked")
+    public List<Long> lexicalSearch(String queryText, int maxCandidates, SemanticSearchFilter filter) {
+        if (queryText == null || queryText.isBlank()) {
+            return List.of();
+        }
 
-        for (Project project : projects) {
-            try {
-                generateAndStoreEmbeddingTransactional(project);
-                successCount++;
-            } catch (Exception e) {
-                LOG.errorf(e, "Failed to generate embedding for project ID %d", project.id);
-                failureCount++;
-            }
+        List<Object> params = new ArrayList<>();
+        String sql = lexicalSql(queryText, maxCandidates, filter, params);
+        Query query = em.createNativeQuery(sql);
+        for (int i = 0; i < params.size(); i++) {
+            query.setParameter(i + 1, params.get(i));
         }
+        List<Number> ids = query.getResultList();
+        return ids.stream().map(Number::longValue).toList();
+    }
 
-        LOG.infof("Embeddings regenerated: %d succeeded, %d failed", successCount, failureCount);
+    /**
+     * Full-text candidate statement; fills {@code params} in positional order.
+     */
+    static String lexicalSql(String queryText, int maxCandidates, SemanticSearchFilter filter, List<Object> params) {
+        params.add(queryText);
+        StringBuilder sql = new StringBuilder("SELECT id FROM projects, "
+                + "websearch_to_tsquery('russian', ?1) || websearch_to_tsquery('english', ?1) AS query "
+                + "WHERE search_vector @@ query");
+        filter.appendSql(sql, params);
+        params.add(maxCandidates);
+        sql.append(" ORDER BY ts_rank(search_vector, query) DESC, id DESC LIMIT ?").append(params.size());
+        return sql.toString();
     }
 
     /**
-     * Generate and store embedding for a project by ID in a separate transaction.
-     * This is the preferred method for async calls to avoid detached entity issues.
+     * Known tags or skills closest to a possibly misspelled or partial term, for autocomplete and
+     * "did you mean" before filtering. Served by the trigram index on {@code project_terms}:
+     * prefix matches first, then by trigram similarity, then by how many projects use the term.
+     *
+     * @param kind {@code TAG} or {@code SKILL}
+     * @param term what the user typed
+     * @param limit maximum number of suggestions
+     * @return normalized terms, best match first
      */
-    @Transactional
-    public void generateAndStoreEmbeddingById(Long projectId) {
-        Project project = em.find(Project.class, projectId);
-        if (project == null) {
-            LOG.warnf("Project not found: %d", projectId);
-            return;
+    public List<String> suggestTerms(String kind, String term, int limit) {
+        String[] parsed = TermList.parse(term);
+        if (parsed.length == 0) {
+            return List.of();
         }
-
-        generateAndStoreEmbedding(project);
-        em.flush(); // Force immediate write to DB
+        String needle = parsed[0];
+        String prefix = needle.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+
+        @SuppressWarnings("unchecked")
+        List<String> terms = em.createNativeQuery(
+                        "SELECT term FROM project_terms "
+                                + "WHERE kind = ?1 AND (term LIKE ?2 OR term % ?3) "
+                                + "ORDER BY (term LIKE ?2) DESC, similarity(term, ?3) DESC, usage_count DESC, term "
+                                + "LIMIT ?4")
+                .setParameter(1, kind)
+                .setParameter(2, prefix)
+                .setParameter(3, needle)
+                .setParameter(4, limit)
+                .getResultList();
+        return terms;
     }
 
     /**
-     * Generate and store embedding for a project in a separate transaction.
-     * This ensures each project update is committed independently.
+     * Semantic leg of a hybrid search without loading any entity: embed the query and rank project ids.
+     * Safe to run off the request thread; the caller loads the projects it returns.
+     *
+     * @param queryText search query
+     * @param maxCandidates maximum number of candidates to return
+     * @param filter catalog filters to push into the backend where supported
+     * @return at most maxCandidates hits, closest first
      */
-    @Transactional
-    public void generateAndStoreEmbeddingTransactional(Project project) {
-        // Re-fetch project in this transaction context
-        Project managedProject = em.find(Project.class, project.id);
-        if (managedProject == null) {
-            throw new IllegalStateException("Project not found: " + project.id);
+    public List<VectorSearchBackend.Hit> semanticHits(String queryText, int maxCandidates, SemanticSearchFilter filter) {
+        if (queryText == null || queryText.isBlank()) {
+            return List.of();
         }
 
-        generateAndStoreEmbedding(managedProject);
-        em.flush(); // Force immediate write to DB
+        // Generate embedding for query text (local and Redis caching)
+        float[] queryEmbedding = queryEmbeddingCache.getQueryEmbedding(queryText);
+
+        // Bounded candidate set; filters the backend cannot evaluate are re-checked by the caller
+        return nearest(queryEmbedding, maxCandidates, filter);
     }
 
     /**
-     * CDI event observer that handles embedding generation after project transaction commits.
-     * Runs in a separate thread to avoid transaction conflicts.
+     * Run a nearest-neighbour query on the configured backend.
+     * pgvector evaluates the whole filter in SQL; the in-JVM backends only check publication status.
+     * The exact scan is used when HNSW is not selected or not built yet, and as fallback if it fails.
+     * In recall comparison mode a sample of queries is also run on the other backend in the background,
+     * reusing the result already served so the comparison never adds a second scan to the request.
      */
-    public void onProjectEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProjectEvent event) {
-        // Execute in separate thread since observer runs after transaction commit
-        executorService.submit(() -> {
+    private List<VectorSearchBackend.Hit> nearest(float[] queryEmbedding, int k, SemanticSearchFilter filter) {
+        if (pgVectorBackend.name().equals(backend)) {
+            return pgVectorBackend.search(queryEmbedding, k, filter);
+        }
+
+        boolean publishedOnly = filter.strictlyPublished();
+        boolean hnswReady = hnswBackend.isEnabled() && hnswBackend.isReady();
+        if (hnswReady && hnswBackend.name().equals(backend)) {
             try {
-                generateAndStoreEmbeddingById(event.getProjectId());
+                List<VectorSearchBackend.Hit> hits = hnswBackend.search(queryEmbedding, k, publishedOnly);
+                hnswBackend.compareInBackground(queryEmbedding, k, publishedOnly, hits, null);
+                return hits;
             } catch (Exception e) {
-                LOG.errorf(e, "Failed to generate embedding for project ID %d", event.getProjectId());
+                LOG.warn("HNSW search failed, falling back to exact scan", e);
             }
-        });
+        }
+        List<VectorSearchBackend.Hit> hits = embeddingIndex.search(queryEmbedding, k, publishedOnly);
+        if (hnswReady && !hnswBackend.name().equals(backend)) {
+            hnswBackend.compareInBackground(queryEmbedding, k, publishedOnly, null, hits);
+        }
+        return hits;
     }
 
     /**
-     * Perform semantic search and return projects with their distance scores.
-     * Used for hybrid search combining traditional and semantic approaches.
-     *
-     * @param queryText search query
-     * @return list of projects with their L2 distances
+     * Load the projects behind index hits with a single query, preserving hit order.
+     * Hits whose project no longer exists are dropped.
      */
-    public List<ProjectWithDistance> semanticSearchWithScores(String queryText) {
-        if (queryText == null || queryText.isBlank()) {
+    private List<ProjectWithDistance> hydrate(List<VectorSearchBackend.Hit> hits) {
+        if (hits.isEmpty()) {
             return List.of();
         }
 
-        try {
-            // Generate embedding for query text (with Redis caching)
-            List<Float> queryEmbeddingList = queryEmbeddingCache.getQueryEmbedding(queryText);
-            float[] queryEmbedding = VectorUtils.toFloatArray(queryEmbeddingList);
-
-            // Fetch all projects with embeddings
-            List<Project> projects = em.createQuery(
-                    "SELECT p FROM Project p WHERE p.embedding IS NOT NULL",
-                    Project.class
-            ).getResultList();
-
-            if (projects.isEmpty()) {
-                return List.of();
+        List<Long> ids = hits.stream().map(VectorSearchBackend.Hit::projectId).toList();
+        Map<Long, Project> projectsById = em.createQuery("SELECT p FROM Project p WHERE p.id IN :ids", Project.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(p -> p.id, Function.identity()));
+
+        List<ProjectWithDistance> result = new ArrayList<>(hits.size());
+        for (VectorSearchBackend.Hit hit : hits) {
+            Project project = projectsById.get(hit.projectId());
+            if (project != null) {
+                result.add(new ProjectWithDistance(project, hit.distance()));
             }
-
-            // Calculate distances for all projects
-            return projects.stream()
-                    .map(project -> {
-                        float[] projectEmbedding = VectorUtils.fromVectorString(project.embedding);
-                        float distance = VectorUtils.l2DistanceSquared(queryEmbedding, projectEmbedding);
-                        return new ProjectWithDistance(project, distance);
-                    })
-                    .sorted(Comparator.comparingDouble(ProjectWithDistance::distance))
-                    .toList();
-
-        } catch (Exception e) {
-            LOG.error("Semantic search failed", e);
-            return List.of();
         }
+        return result;
     }
 
     /**
@@ -1,58 +1,219 @@
 package org.acme.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.quarkus.cache.CacheInvalidate;
+import io.quarkus.cache.CacheInvalidateAll;
 import io.quarkus.cache.CacheResult;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.pubsub.PubSubCommands;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import org.acme.util.QueryNormalizer;
+import org.acme.util.VectorUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Service for caching query embeddings to avoid repeated API calls to GigaChat.
  * Query embeddings are deterministic (same text → same embedding), so they can be cached for long periods.
+ * Two tiers: a size-bounded in-process L1 (Caffeine, W-TinyLFU) of primitive {@code float[]} in front of
+ * the shared Redis L2. Invalidations are broadcast over Redis pub/sub so every node drops its L1 entry.
+ * Keys are canonical queries ({@link QueryNormalizer}); concurrent misses for one key share a single load.
  */
 @ApplicationScoped
 public class QueryEmbeddingCache {
 
     private static final Logger LOG = Logger.getLogger(QueryEmbeddingCache.class);
+    private static final String INVALIDATION_CHANNEL = "sberlab:query-embeddings:invalidate";
+    private static final String INVALIDATE_ALL = "*";
 
     @Inject
     GigaChatService gigaChatService;
 
+    @Inject
+    RedisDataSource redis;
+
+    @ConfigProperty(name = "app.search.query-cache.l1-max-size", defaultValue = "2000")
+    long l1MaxSize;
+
+    @ConfigProperty(name = "app.search.query-cache.l1-expire-after-write", defaultValue = "24h")
+    Duration l1ExpireAfterWrite;
+
+    private Cache<String, float[]> local;
+    private PubSubCommands<String> pubsub;
+    private PubSubCommands.RedisSubscriber subscriber;
+    private final LongAdder sharedLookups = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+    private final LongAdder coalescedMisses = new LongAdder();
+    // Loads in progress, so concurrent misses for the same key wait for one GigaChat call
+    private final Map<String, CompletableFuture<float[]>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        local = Caffeine.newBuilder()
+                .maximumSize(l1MaxSize)
+                .expireAfterWrite(l1ExpireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        try {
+            pubsub = redis.pubsub(String.class);
+            subscriber = pubsub.subscribe(INVALIDATION_CHANNEL, this::onInvalidation);
+        } catch (Exception e) {
+            // The local tier still works, it just won't hear about invalidations from other nodes
+            LOG.warnf(e, "Could not subscribe to %s", INVALIDATION_CHANNEL);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (subscriber != null) {
+            subscriber.unsubscribe();
+        }
+    }
+
     /**
-     * Get embedding for query text with Redis caching.
-     * Cache key is the normalized query text (trimmed and lowercased).
-     * TTL is 7 days as embeddings are deterministic.
+     * Get embedding for query text, from the local tier, then Redis, then GigaChat.
+     * Cache key is the canonical query text, which is also what gets embedded.
+     * The returned array is shared with the cache and must not be modified.
      *
      * @param queryText search query text
      * @return embedding vector (1024 floats)
      */
-    @CacheResult(cacheName = "query-embeddings")
-    public List<Float> getQueryEmbedding(String queryText) {
-        // Normalize the query text for consistent cache keys
-        String normalized = normalizeQuery(queryText);
+    public float[] getQueryEmbedding(String queryText) {
+        String key = QueryNormalizer.canonicalize(queryText);
+
+        float[] embedding = local.getIfPresent(key);
+        if (embedding != null) {
+            return embedding;
+        }
+
+        CompletableFuture<float[]> load = new CompletableFuture<>();
+        CompletableFuture<float[]> pending = inFlight.putIfAbsent(key, load);
+        if (pending != null) {
+            coalescedMisses.increment();
+            return await(pending);
+        }
+
+        try {
+            sharedLookups.increment();
+            embedding = loadSharedEmbedding(key);
+            local.put(key, embedding);
+            load.complete(embedding);
+            return embedding;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private static float[] await(CompletableFuture<float[]> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 
-        LOG.infof("Cache miss for query: '%s' - calling GigaChat API", normalized);
+    /**
+     * Redis tier. TTL is 7 days as embeddings are deterministic.
+     * Values are stored as raw floats by {@link EmbeddingCodec}. The body only runs on a Redis miss.
+     */
+    @CacheResult(cacheName = "query-embeddings")
+    float[] loadSharedEmbedding(String key) {
+        sharedMisses.increment();
+        LOG.infof("Cache miss for query: '%s' - calling GigaChat API", key);
 
         try {
-            return gigaChatService.generateEmbedding(normalized);
+            return VectorUtils.toFloatArray(gigaChatService.generateEmbedding(key));
         } catch (Exception e) {
-            LOG.errorf(e, "Failed to generate embedding for query: %s", normalized);
+            LOG.errorf(e, "Failed to generate embedding for query: %s", key);
             throw new RuntimeException("Failed to generate query embedding: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Normalize query text for consistent cache keys.
-     * Trims whitespace and converts to lowercase.
-     *
-     * @param queryText raw query text
-     * @return normalized query text
+     * Drop one query from both tiers on every node.
+     */
+    public void invalidate(String queryText) {
+        String key = QueryNormalizer.canonicalize(queryText);
+        invalidateShared(key);
+        local.invalidate(key);
+        broadcast(key);
+    }
+
+    /**
+     * Drop every query embedding from both tiers on every node, e.g. after an embedding model change.
      */
-    private String normalizeQuery(String queryText) {
-        if (queryText == null) {
-            return "";
+    public void invalidateAll() {
+        invalidateAllShared();
+        local.invalidateAll();
+        broadcast(INVALIDATE_ALL);
+    }
+
+    @CacheInvalidate(cacheName = "query-embeddings")
+    void invalidateShared(String key) {
+    }
+
+    @CacheInvalidateAll(cacheName = "query-embeddings")
+    void invalidateAllShared() {
+    }
+
+    /**
+     * Per-tier hit, miss and eviction counters since startup, plus local misses that joined a load in flight.
+     * Redis expires entries on its own, so the shared tier reports no evictions.
+     */
+    public Stats stats() {
+        CacheStats l1 = local.stats();
+        long lookups = sharedLookups.sum();
+        long misses = sharedMisses.sum();
+        return new Stats(
+                new TierStats(l1.hitCount(), l1.missCount(), l1.evictionCount(), local.estimatedSize()),
+                new TierStats(lookups - misses, misses, null, null),
+                coalescedMisses.sum()
+        );
+    }
+
+    private void onInvalidation(String key) {
+        if (INVALIDATE_ALL.equals(key)) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
         }
-        return queryText.trim().toLowerCase();
     }
+
+    private void broadcast(String key) {
+        if (pubsub == null) {
+            return;
+        }
+        try {
+            pubsub.publish(INVALIDATION_CHANNEL, key);
+        } catch (Exception e) {
+            LOG.warnf(e, "Failed to broadcast invalidation of query embedding '%s'", key);
+        }
+    }
+
+    public record TierStats(long hits, long misses, Long evictions, Long size) {}
+
+    public record Stats(TierStats local, TierStats shared, long coalescedMisses) {}
 }
@@ -0,0 +1,87 @@
+package org.acme.service;
+
+import org.acme.entity.Project;
+
+import java.util.List;
+
+/**
+ * Catalog filters that can be pushed into the candidate queries of a search: the full-text query and
+ * nearest-neighbour queries. Applying them before the candidate LIMIT keeps restrictive filters from
+ * being starved by rows that would be dropped later.
+ * Backends that cannot evaluate every field apply what they can; callers still re-check the rest.
+ *
+ * @param publishedOnly only PUBLISHED projects, except those owned by viewerMentorId
+ * @param viewerMentorId mentor whose own drafts and archived projects stay visible, or null
+ * @param difficulty required difficulty, or null
+ * @param thesis require thesisOk
+ * @param practice require practiceOk
+ * @param coursework require courseworkOk
+ * @param tags normalized tag terms, empty for no tag filter
+ * @param allTags require all tags instead of any of them
+ * @param skills normalized skill terms, empty for no skill filter
+ * @param allSkills require all skills instead of any of them
+ * @param mentorId required mentor, or null
+ */
+public record SemanticSearchFilter(
+        boolean publishedOnly, Long viewerMentorId, Project.Difficulty difficulty,
+        boolean thesis, boolean practice, boolean coursework,
+        String[] tags, boolean allTags, String[] skills, boolean allSkills, Long mentorId) {
+
+    private static final String[] NO_TERMS = new String[0];
+
+    public static final SemanticSearchFilter NONE = new SemanticSearchFilter(
+            false, null, null, false, false, false, NO_TERMS, true, NO_TERMS, true, null);
+
+    public static final SemanticSearchFilter PUBLISHED = new SemanticSearchFilter(
+            true, null, null, false, false, false, NO_TERMS, true, NO_TERMS, true, null);
+
+    /**
+     * Whether only PUBLISHED projects can match, which index backends can check without the mentor.
+     */
+    public boolean strictlyPublished() {
+        return publishedOnly && viewerMentorId == null;
+    }
+
+    /**
+     * Append the filter as {@code AND ...} predicates over the {@code projects} table.
+     * Parameters are numbered after those already in {@code params}, which receives the new values.
+     */
+    public void appendSql(StringBuilder sql, List<Object> params) {
+        if (publishedOnly) {
+            if (viewerMentorId != null) {
+                params.add(viewerMentorId);
+                sql.append(" AND (status = 'PUBLISHED' OR mentor_id = ?").append(params.size()).append(")");
+            } else {
+                sql.append(" AND status = 'PUBLISHED'");
+            }
+        }
+        if (difficulty != null) {
+            params.add(difficulty.name());
+            sql.append(" AND difficulty = ?").append(params.size());
+        }
+        if (thesis) {
+            sql.append(" AND thesis_ok");
+        }
+        if (practice) {
+            sql.append(" AND practice_ok");
+        }
+        if (coursework) {
+            sql.append(" AND coursework_ok");
+        }
+        // @> (all of) and && (any of) are served by the GIN indexes from V9
+        if (tags.length > 0) {
+            params.add(tags);
+            sql.append(" AND tag_list ").append(allTags ? "@>" : "&&")
+                    .append(" CAST(?").append(params.size()).append(" AS text[])");
+        }
+        if (skills.length > 0) {
+            params.add(skills);
+            sql.append(" AND skill_list ").append(allSkills ? "@>" : "&&")
+                    .append(" CAST(?").append(params.size()).append(" AS text[])");
+        }
+        if (mentorId != null) {
+            params.add(mentorId);
+            sql.append(" AND mentor_id = ?").append(params.size());
+        }
+    }
+}
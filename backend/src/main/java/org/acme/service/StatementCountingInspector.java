@@ -0,0 +1,22 @@
+package org.acme.service;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.util.StatementCounter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Reports every SQL statement Hibernate prepares to {@link StatementCounter}. The SQL itself is passed through unchanged.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class StatementCountingInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        StatementCounter.record();
+        return sql;
+    }
+}
@@ -0,0 +1,67 @@
+package org.acme.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.acme.dto.UserDto;
+import org.acme.event.UserEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Local cache of users by id, so resolving the caller of a request does not cost a database round trip.
+ * Entries are dropped when a {@link UserEvent} commits (role change, login, deletion); the short TTL
+ * bounds staleness for changes made on other nodes.
+ */
+@ApplicationScoped
+public class UserCache {
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "app.auth.user-cache.max-size", defaultValue = "10000")
+    long maxSize;
+
+    @ConfigProperty(name = "app.auth.user-cache.ttl", defaultValue = "30s")
+    Duration ttl;
+
+    // Optional so that unknown ids are cached too and a stale token cannot force a query per request
+    private Cache<Long, Optional<UserDto>> users;
+
+    @PostConstruct
+    void init() {
+        users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * The user with the given id, loaded on a miss, or null if there is none.
+     */
+    public UserDto get(Long userId) {
+        return users.get(userId, this::load).orElse(null);
+    }
+
+    public void invalidate(Long userId) {
+        users.invalidate(userId);
+    }
+
+    void onUserEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserEvent event) {
+        users.invalidate(event.getUserId());
+    }
+
+    private Optional<UserDto> load(Long userId) {
+        return em.createQuery(UserDto.SELECT + " WHERE u.id = ?1", UserDto.class)
+                .setParameter(1, userId)
+                .getResultStream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,47 @@
+package org.acme.service;
+
+import io.quarkus.security.identity.AuthenticationRequestContext;
+import io.quarkus.security.identity.SecurityIdentity;
+import io.quarkus.security.identity.SecurityIdentityAugmentor;
+import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+import org.acme.dto.UserDto;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+/**
+ * Replaces the roles of a token with the caller's current role from {@link UserCache}, so that
+ * {@code @RolesAllowed} and {@link CurrentUser#role()} agree after a role change without a new token.
+ * A caller whose user no longer exists keeps the identity but has no roles.
+ */
+@ApplicationScoped
+public class UserRoleAugmentor implements SecurityIdentityAugmentor {
+
+    @Inject
+    UserCache userCache;
+
+    @Override
+    public Uni<SecurityIdentity> augment(SecurityIdentity identity, AuthenticationRequestContext context) {
+        if (identity.isAnonymous() || !(identity.getPrincipal() instanceof JsonWebToken jwt) || jwt.getSubject() == null) {
+            return Uni.createFrom().item(identity);
+        }
+        // A cache miss queries the database
+        return context.runBlocking(() -> withCurrentRole(identity, Long.parseLong(jwt.getSubject())));
+    }
+
+    @ActivateRequestContext
+    SecurityIdentity withCurrentRole(SecurityIdentity identity, Long userId) {
+        QuarkusSecurityIdentity.Builder builder = QuarkusSecurityIdentity.builder()
+                .setPrincipal(identity.getPrincipal())
+                .addCredentials(identity.getCredentials())
+                .addAttributes(identity.getAttributes())
+                .addPermissionChecker(identity::checkPermission);
+        UserDto user = userCache.get(userId);
+        if (user != null) {
+            builder.addRole(user.role());
+        }
+        return builder.build();
+    }
+}
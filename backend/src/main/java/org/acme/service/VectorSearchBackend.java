@@ -0,0 +1,31 @@
+package org.acme.service;
+
+import java.util.List;
+
+/**
+ * Nearest-neighbour search over project embeddings.
+ * {@link ProjectEmbeddingIndex} is the exact implementation and serves as fallback and ground truth;
+ * approximate backends trade some recall for sub-linear query time.
+ */
+public interface VectorSearchBackend {
+
+    /**
+     * Short backend name used in configuration and logs.
+     */
+    String name();
+
+    /**
+     * Find the K projects closest to the query by L2 distance.
+     *
+     * @param query query embedding
+     * @param k maximum number of hits to return
+     * @param publishedOnly whether to skip projects that are not PUBLISHED
+     * @return at most K hits sorted by ascending distance
+     */
+    List<Hit> search(float[] query, int k, boolean publishedOnly);
+
+    /**
+     * Project id paired with its squared L2 distance to the query.
+     */
+    record Hit(long projectId, float distance) {}
+}
@@ -0,0 +1,146 @@
+package org.acme.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index of documents by facet value: one bitmap of document ids per (facet, value) pair.
+ * Filtering is bitmap intersection/union and a facet count is the cardinality of a posting restricted
+ * to the current result set, so neither needs a query. Document ids are used as bit positions directly,
+ * which suits dense database sequences. Not thread-safe; callers guard it with a lock.
+ */
+public class FacetBitmaps {
+
+    private final BitSet docs = new BitSet();
+    // facet -> value -> documents having that value
+    private final Map<String, Map<String, BitSet>> postings = new HashMap<>();
+    // Values each document was indexed with, so it can be removed without a scan
+    private final Map<Integer, Map<String, ? extends Collection<String>>> valuesByDoc = new HashMap<>();
+
+    /**
+     * Index a document, replacing whatever it was indexed with before.
+     *
+     * @param doc non-negative document id
+     * @param values facet name to the document's values for that facet; a facet may have several values
+     */
+    public void put(int doc, Map<String, ? extends Collection<String>> values) {
+        remove(doc);
+        for (Map.Entry<String, ? extends Collection<String>> facet : values.entrySet()) {
+            Map<String, BitSet> byValue = postings.computeIfAbsent(facet.getKey(), k -> new HashMap<>());
+            for (String value : facet.getValue()) {
+                byValue.computeIfAbsent(value, v -> new BitSet()).set(doc);
+            }
+        }
+        docs.set(doc);
+        valuesByDoc.put(doc, values);
+    }
+
+    /**
+     * Remove a document; postings left empty are dropped.
+     *
+     * @return whether the document was indexed
+     */
+    public boolean remove(int doc) {
+        Map<String, ? extends Collection<String>> values = valuesByDoc.remove(doc);
+        if (values == null) {
+            return false;
+        }
+        for (Map.Entry<String, ? extends Collection<String>> facet : values.entrySet()) {
+            Map<String, BitSet> byValue = postings.get(facet.getKey());
+            for (String value : facet.getValue()) {
+                BitSet posting = byValue.get(value);
+                if (posting != null) {
+                    posting.clear(doc);
+                    if (posting.isEmpty()) {
+                        byValue.remove(value);
+                    }
+                }
+            }
+        }
+        docs.clear(doc);
+        return true;
+    }
+
+    public void clear() {
+        docs.clear();
+        postings.clear();
+        valuesByDoc.clear();
+    }
+
+    /**
+     * Number of indexed documents.
+     */
+    public int size() {
+        return valuesByDoc.size();
+    }
+
+    /**
+     * A fresh copy of the set of all indexed documents, to narrow down with {@link #retain}.
+     */
+    public BitSet docs() {
+        return (BitSet) docs.clone();
+    }
+
+    public boolean contains(int doc) {
+        return doc >= 0 && docs.get(doc);
+    }
+
+    /**
+     * Narrow {@code target} to documents having all of the given values of a facet, or any of them.
+     */
+    public void retain(BitSet target, String facet, Collection<String> values, boolean matchAll) {
+        Map<String, BitSet> byValue = postings.getOrDefault(facet, Map.of());
+        if (matchAll) {
+            for (String value : values) {
+                BitSet posting = byValue.get(value);
+                if (posting == null) {
+                    target.clear();
+                    return;
+                }
+                target.and(posting);
+            }
+            return;
+        }
+
+        BitSet union = new BitSet();
+        for (String value : values) {
+            BitSet posting = byValue.get(value);
+            if (posting != null) {
+                union.or(posting);
+            }
+        }
+        target.and(union);
+    }
+
+    /**
+     * Number of documents in {@code within} per value of a facet, largest first (ties by value),
+     * omitting values with no such documents.
+     *
+     * @param limit maximum number of values to return
+     */
+    public Map<String, Integer> counts(String facet, BitSet within, int limit) {
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        BitSet scratch = new BitSet();
+        for (Map.Entry<String, BitSet> posting : postings.getOrDefault(facet, Map.of()).entrySet()) {
+            scratch.clear();
+            scratch.or(posting.getValue());
+            scratch.and(within);
+            int count = scratch.cardinality();
+            if (count > 0) {
+                counts.add(Map.entry(posting.getKey(), count));
+            }
+        }
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(limit, counts.size()); i++) {
+            result.put(counts.get(i).getKey(), counts.get(i).getValue());
+        }
+        return result;
+    }
+}
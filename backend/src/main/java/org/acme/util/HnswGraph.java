@@ -0,0 +1,448 @@
+package org.acme.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Hierarchical Navigable Small World graph for approximate nearest-neighbour search by L2 distance
+ * (Malkov &amp; Yashunin). Nodes are keyed by a caller-supplied long id.
+ * Deletes are tombstones: a deleted node still routes searches but never appears in results,
+ * so callers should rebuild once {@link #deletedCount()} grows large.
+ * Inserts and deletes take a write lock, searches a read lock.
+ */
+public class HnswGraph {
+
+    private final int dimension;
+    private final int m;
+    private final int maxConnections0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node[] nodes = new Node[64];
+    private int nodeCount;
+    private final Map<Long, Integer> nodeById = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int deletedCount;
+
+    private static final class Node {
+        final long id;
+        final float[] vector;
+        final int[][] neighbors;
+        final int[] neighborCounts;
+        boolean deleted;
+
+        Node(long id, float[] vector, int level, int m, int maxConnections0) {
+            this.id = id;
+            this.vector = vector;
+            this.neighbors = new int[level + 1][];
+            this.neighborCounts = new int[level + 1];
+            for (int l = 0; l <= level; l++) {
+                neighbors[l] = new int[l == 0 ? maxConnections0 : m];
+            }
+        }
+
+        int level() {
+            return neighbors.length - 1;
+        }
+    }
+
+    /**
+     * @param dimension vector length
+     * @param m maximum number of links per node on upper layers (layer 0 keeps 2 * m)
+     * @param efConstruction size of the dynamic candidate list while inserting
+     * @param seed seed for level assignment, fixed for reproducible graphs
+     */
+    public HnswGraph(int dimension, int m, int efConstruction, long seed) {
+        if (m < 2) {
+            throw new IllegalArgumentException("m must be at least 2: " + m);
+        }
+        if (efConstruction < 1) {
+            throw new IllegalArgumentException("efConstruction must be positive: " + efConstruction);
+        }
+        this.dimension = dimension;
+        this.m = m;
+        this.maxConnections0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Insert a vector, replacing any earlier vector with the same id.
+     */
+    public void insert(long id, float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected " + dimension + " dimensions, got " + vector.length);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = nodeById.remove(id);
+            if (existing != null) {
+                markDeleted(existing);
+            }
+
+            int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+            Node node = new Node(id, vector.clone(), level, m, maxConnections0);
+            if (nodeCount == nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            }
+            int index = nodeCount++;
+            nodes[index] = node;
+            nodeById.put(id, index);
+
+            if (entryPoint < 0) {
+                entryPoint = index;
+                maxLevel = level;
+                return;
+            }
+
+            int ep = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                ep = greedyClosest(node.vector, ep, l);
+            }
+
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                Candidates found = searchLayer(node.vector, ep, efConstruction, l, null);
+                if (found.size == 0) {
+                    continue;
+                }
+                int[] selected = selectNeighbors(found.nodes, found.distances, found.size, maxConnections(l));
+                System.arraycopy(selected, 0, node.neighbors[l], 0, selected.length);
+                node.neighborCounts[l] = selected.length;
+                for (int neighbor : selected) {
+                    link(neighbor, index, l);
+                }
+                ep = found.nodes[0];
+            }
+
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = index;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a vector from search results.
+     *
+     * @return whether the id was present
+     */
+    public boolean delete(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer index = nodeById.remove(id);
+            if (index == null) {
+                return false;
+            }
+            markDeleted(index);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find approximately the K nearest live vectors to the query.
+     *
+     * @param query query vector
+     * @param k number of results
+     * @param efSearch size of the dynamic candidate list, raised to K if smaller
+     * @param accept filter on ids, or null to accept all
+     * @param outIds receives ids, closest first; must hold K entries
+     * @param outDistances receives squared L2 distances, closest first; must hold K entries
+     * @return number of results written
+     */
+    public int search(float[] query, int k, int efSearch, LongPredicate accept, long[] outIds, float[] outDistances) {
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("Expected " + dimension + " dimensions, got " + query.length);
+        }
+
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return 0;
+            }
+
+            int ep = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                ep = greedyClosest(query, ep, l);
+            }
+
+            Candidates found = searchLayer(query, ep, Math.max(efSearch, k), 0, accept);
+            int count = Math.min(k, found.size);
+            for (int i = 0; i < count; i++) {
+                outIds[i] = nodes[found.nodes[i]].id;
+                outDistances[i] = found.distances[i];
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live vectors.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of tombstoned nodes still held in the graph.
+     */
+    public int deletedCount() {
+        lock.readLock().lock();
+        try {
+            return deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void markDeleted(int index) {
+        if (!nodes[index].deleted) {
+            nodes[index].deleted = true;
+            deletedCount++;
+        }
+    }
+
+    private int maxConnections(int level) {
+        return level == 0 ? maxConnections0 : m;
+    }
+
+    private float distance(float[] query, int node) {
+        return VectorUtils.l2DistanceSquared(query, nodes[node].vector);
+    }
+
+    private int greedyClosest(float[] query, int ep, int level) {
+        int current = ep;
+        float currentDistance = distance(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node node = nodes[current];
+            int[] links = node.neighbors[level];
+            for (int i = 0; i < node.neighborCounts[level]; i++) {
+                float d = distance(query, links[i]);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = links[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search of one layer. Tombstoned and filtered-out nodes are traversed but not returned.
+     */
+    private Candidates searchLayer(float[] query, int ep, int ef, int level, LongPredicate accept) {
+        BitSet visited = new BitSet(nodeCount);
+        MinQueue frontier = new MinQueue(ef * 2);
+        TopKHeap results = new TopKHeap(ef);
+
+        float d = distance(query, ep);
+        visited.set(ep);
+        frontier.push(ep, d);
+        if (admit(ep, accept)) {
+            results.offer(ep, d);
+        }
+
+        while (frontier.size > 0) {
+            if (frontier.peekDistance() > results.threshold()) {
+                break;
+            }
+            int current = frontier.pop();
+            Node node = nodes[current];
+            if (level > node.level()) {
+                continue;
+            }
+            int[] links = node.neighbors[level];
+            for (int i = 0; i < node.neighborCounts[level]; i++) {
+                int neighbor = links[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float nd = distance(query, neighbor);
+                if (nd < results.threshold()) {
+                    frontier.push(neighbor, nd);
+                    if (admit(neighbor, accept)) {
+                        results.offer(neighbor, nd);
+                    }
+                }
+            }
+        }
+
+        Candidates candidates = new Candidates(results.size());
+        long[] ids = new long[results.size()];
+        candidates.size = results.drainSorted(ids, candidates.distances);
+        for (int i = 0; i < candidates.size; i++) {
+            candidates.nodes[i] = (int) ids[i];
+        }
+        return candidates;
+    }
+
+    private boolean admit(int index, LongPredicate accept) {
+        Node node = nodes[index];
+        return !node.deleted && (accept == null || accept.test(node.id));
+    }
+
+    /**
+     * Neighbour selection heuristic: keep a candidate only if it is closer to the base than to any
+     * already selected neighbour, which spreads links across directions. Remaining slots are
+     * filled with the closest pruned candidates to preserve connectivity.
+     */
+    private int[] selectNeighbors(int[] sorted, float[] distances, int count, int max) {
+        int[] selected = new int[Math.min(count, max)];
+        boolean[] taken = new boolean[count];
+        int selectedCount = 0;
+
+        for (int i = 0; i < count && selectedCount < selected.length; i++) {
+            float[] candidate = nodes[sorted[i]].vector;
+            boolean diverse = true;
+            for (int j = 0; j < selectedCount; j++) {
+                if (distance(candidate, selected[j]) < distances[i]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[selectedCount++] = sorted[i];
+                taken[i] = true;
+            }
+        }
+        for (int i = 0; i < count && selectedCount < selected.length; i++) {
+            if (!taken[i]) {
+                selected[selectedCount++] = sorted[i];
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Add a directed link, re-selecting the neighbour's links if it is over capacity.
+     */
+    private void link(int from, int to, int level) {
+        Node node = nodes[from];
+        int max = maxConnections(level);
+        int count = node.neighborCounts[level];
+        if (count < max) {
+            node.neighbors[level][count] = to;
+            node.neighborCounts[level] = count + 1;
+            return;
+        }
+
+        TopKHeap heap = new TopKHeap(count + 1);
+        for (int i = 0; i < count; i++) {
+            int neighbor = node.neighbors[level][i];
+            heap.offer(neighbor, distance(node.vector, neighbor));
+        }
+        heap.offer(to, distance(node.vector, to));
+
+        long[] ids = new long[count + 1];
+        float[] distances = new float[count + 1];
+        int total = heap.drainSorted(ids, distances);
+        int[] sorted = new int[total];
+        for (int i = 0; i < total; i++) {
+            sorted[i] = (int) ids[i];
+        }
+
+        int[] selected = selectNeighbors(sorted, distances, total, max);
+        System.arraycopy(selected, 0, node.neighbors[level], 0, selected.length);
+        node.neighborCounts[level] = selected.length;
+    }
+
+    private static final class Candidates {
+        final int[] nodes;
+        final float[] distances;
+        int size;
+
+        Candidates(int capacity) {
+            this.nodes = new int[capacity];
+            this.distances = new float[capacity];
+        }
+    }
+
+    /**
+     * Growable primitive min-heap of (distance, node) used as the search frontier.
+     */
+    private static final class MinQueue {
+        private float[] distances;
+        private int[] nodes;
+        private int size;
+
+        MinQueue(int capacity) {
+            this.distances = new float[Math.max(capacity, 8)];
+            this.nodes = new int[distances.length];
+        }
+
+        void push(int node, float distance) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (distances[parent] <= distance) {
+                    break;
+                }
+                distances[i] = distances[parent];
+                nodes[i] = nodes[parent];
+                i = parent;
+            }
+            distances[i] = distance;
+            nodes[i] = node;
+        }
+
+        float peekDistance() {
+            return distances[0];
+        }
+
+        int pop() {
+            int top = nodes[0];
+            size--;
+            if (size > 0) {
+                float d = distances[size];
+                int n = nodes[size];
+                int i = 0;
+                int half = size >>> 1;
+                while (i < half) {
+                    int child = 2 * i + 1;
+                    int right = child + 1;
+                    if (right < size && distances[right] < distances[child]) {
+                        child = right;
+                    }
+                    if (d <= distances[child]) {
+                        break;
+                    }
+                    distances[i] = distances[child];
+                    nodes[i] = nodes[child];
+                    i = child;
+                }
+                distances[i] = d;
+                nodes[i] = n;
+            }
+            return top;
+        }
+    }
+}
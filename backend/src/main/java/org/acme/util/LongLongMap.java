@@ -0,0 +1,114 @@
+package org.acme.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing long → long hash map (linear probing, backward-shift deletion). No boxing on any path,
+ * so a table of a few hundred thousand entries stays a pair of arrays. Not thread-safe; keys must not be
+ * {@link Long#MIN_VALUE}.
+ */
+public class LongLongMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    public LongLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(long key) {
+        return keys[slotOf(keys, key)] != EMPTY;
+    }
+
+    /**
+     * Value of the key, or {@code missing} if it is absent.
+     */
+    public long get(long key, long missing) {
+        int slot = slotOf(keys, key);
+        return keys[slot] == EMPTY ? missing : values[slot];
+    }
+
+    public void put(long key, long value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Reserved key");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int slot = slotOf(keys, key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Remove the key.
+     *
+     * @return whether it was present
+     */
+    public boolean remove(long key) {
+        int mask = keys.length - 1;
+        int hole = slotOf(keys, key);
+        if (keys[hole] == EMPTY) {
+            return false;
+        }
+        // Pull later entries of the probe run back into the hole, unless that would put them before their home slot
+        for (int i = (hole + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = home(keys[i], mask);
+            boolean movable = i > hole ? home <= hole || home > i : home <= hole && home > i;
+            if (movable) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int home(long key, int mask) {
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+    }
+
+    private static int slotOf(long[] table, long key) {
+        int mask = table.length - 1;
+        int slot = home(key, mask);
+        while (table[slot] != EMPTY && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,71 @@
+package org.acme.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Growable row-major float matrix stored in a direct buffer outside the Java heap.
+ * Rows are not scanned in bulk; they are copied out one at a time, e.g. to re-rank a few candidates exactly.
+ * A single buffer is limited to 2 GB, i.e. about 500k rows of 1024 dimensions.
+ */
+public class OffHeapFloatMatrix {
+
+    private final int dimension;
+    private FloatBuffer rows;
+    private int capacity;
+
+    public OffHeapFloatMatrix(int dimension, int initialRows) {
+        this.dimension = dimension;
+        this.rows = allocate(initialRows);
+        this.capacity = initialRows;
+    }
+
+    /**
+     * Grow to hold at least the given number of rows. The old buffer is released by the GC.
+     */
+    public void ensureCapacity(int rows) {
+        if (rows <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(rows, capacity * 2);
+        FloatBuffer grown = allocate(newCapacity);
+        grown.put(0, this.rows, 0, capacity * dimension);
+        this.rows = grown;
+        this.capacity = newCapacity;
+    }
+
+    public void set(int row, float[] vector) {
+        rows.put(row * dimension, vector, 0, dimension);
+    }
+
+    /**
+     * Copy a row over another, used when compacting after a removal.
+     */
+    public void move(int from, int to) {
+        rows.put(to * dimension, rows, from * dimension, dimension);
+    }
+
+    /**
+     * Copy a row into the given array, which must hold at least one row.
+     */
+    public float[] get(int row, float[] into) {
+        rows.get(row * dimension, into, 0, dimension);
+        return into;
+    }
+
+    /**
+     * Off-heap size of the given number of rows in bytes.
+     */
+    public long bytesFor(int rows) {
+        return (long) rows * dimension * Float.BYTES;
+    }
+
+    private FloatBuffer allocate(int rowCount) {
+        long bytes = (long) rowCount * dimension * Float.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap matrix cannot hold " + rowCount + " rows of " + dimension);
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+}
@@ -0,0 +1,80 @@
+package org.acme.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort key and id of the last item of a page.
+ * Browsing sorts by (createdAt, id) and search by (score, id), both descending; the next page
+ * starts strictly after the cursor, so its cost does not grow with depth the way OFFSET does.
+ *
+ * @param kind which ordering the cursor belongs to
+ * @param key sort key of the last item: epoch microseconds for {@link Kind#BROWSE},
+ *            raw bits of the score for {@link Kind#SEARCH}
+ * @param id id of the last item, the tie-breaker
+ */
+public record PageCursor(Kind kind, long key, long id) {
+
+    public enum Kind {
+        BROWSE('b'),
+        SEARCH('s');
+
+        private final char tag;
+
+        Kind(char tag) {
+            this.tag = tag;
+        }
+    }
+
+    public static PageCursor browse(Instant createdAt, long id) {
+        return new PageCursor(Kind.BROWSE, ChronoUnit.MICROS.between(Instant.EPOCH, createdAt), id);
+    }
+
+    public static PageCursor search(double score, long id) {
+        return new PageCursor(Kind.SEARCH, Double.doubleToLongBits(score), id);
+    }
+
+    /**
+     * Creation time of the last item; database timestamps have microsecond precision.
+     */
+    public Instant createdAt() {
+        return Instant.EPOCH.plus(key, ChronoUnit.MICROS);
+    }
+
+    public double score() {
+        return Double.longBitsToDouble(key);
+    }
+
+    /**
+     * URL-safe token for the client to send back as is.
+     */
+    public String encode() {
+        String raw = kind.tag + ":" + Long.toString(key, 36) + ":" + Long.toString(id, 36);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Parse a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed or belongs to another ordering
+     */
+    public static PageCursor decode(String token, Kind expected) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        String[] parts = raw.split(":", -1);
+        if (parts.length != 3 || parts[0].length() != 1 || parts[0].charAt(0) != expected.tag) {
+            throw new IllegalArgumentException("Cursor does not belong to this listing");
+        }
+        try {
+            return new PageCursor(expected, Long.parseLong(parts[1], 36), Long.parseLong(parts[2], 36));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
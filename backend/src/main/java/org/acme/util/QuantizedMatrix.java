@@ -0,0 +1,135 @@
+package org.acme.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable row-major matrix of int8-quantized vectors.
+ * Each row keeps its own affine mapping x ≈ offset + scale * code, with codes in [-128, 127],
+ * so a 1024-dim row costs 1 KB plus a few floats instead of 4 KB.
+ * Distances to a float query are asymmetric: the query is not quantized, only the rows are.
+ */
+public class QuantizedMatrix {
+
+    private final int dimension;
+    private byte[] codes;
+    private float[] scales;
+    private float[] offsets;
+    private float[] codeSums;
+    private float[] codeSquares;
+
+    public QuantizedMatrix(int dimension, int initialRows) {
+        this.dimension = dimension;
+        this.codes = new byte[initialRows * dimension];
+        this.scales = new float[initialRows];
+        this.offsets = new float[initialRows];
+        this.codeSums = new float[initialRows];
+        this.codeSquares = new float[initialRows];
+    }
+
+    /**
+     * Grow to hold at least the given number of rows.
+     */
+    public void ensureCapacity(int rows) {
+        if (rows <= scales.length) {
+            return;
+        }
+        int capacity = Math.max(rows, scales.length * 2);
+        codes = Arrays.copyOf(codes, capacity * dimension);
+        scales = Arrays.copyOf(scales, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        codeSums = Arrays.copyOf(codeSums, capacity);
+        codeSquares = Arrays.copyOf(codeSquares, capacity);
+    }
+
+    /**
+     * Quantize a vector into a row using its own min/max range.
+     */
+    public void set(int row, float[] vector) {
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (float v : vector) {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        float scale = max > min ? (max - min) / 255.0f : 1.0f;
+
+        int base = row * dimension;
+        long sum = 0;
+        long squares = 0;
+        for (int i = 0; i < dimension; i++) {
+            int code = Math.round((vector[i] - min) / scale) - 128;
+            code = Math.max(-128, Math.min(127, code));
+            codes[base + i] = (byte) code;
+            sum += code;
+            squares += (long) code * code;
+        }
+
+        scales[row] = scale;
+        offsets[row] = min + 128.0f * scale;
+        codeSums[row] = sum;
+        codeSquares[row] = squares;
+    }
+
+    /**
+     * Copy a row over another, used when compacting after a removal.
+     */
+    public void move(int from, int to) {
+        System.arraycopy(codes, from * dimension, codes, to * dimension, dimension);
+        scales[to] = scales[from];
+        offsets[to] = offsets[from];
+        codeSums[to] = codeSums[from];
+        codeSquares[to] = codeSquares[from];
+    }
+
+    /**
+     * Approximate squared L2 distance from the query to a row.
+     * Expands sum((q - o - s*c)^2) so that only the dot product q·c touches the row codes.
+     *
+     * @param query float query
+     * @param queryStats {@link #queryStats} of the same query
+     * @param row row index
+     */
+    public float distance(float[] query, QueryStats queryStats, int row) {
+        double o = offsets[row];
+        double s = scales[row];
+        double dot = VectorUtils.dotProductInt8(query, codes, row * dimension);
+        double distance = queryStats.squareSum - 2 * o * queryStats.sum + dimension * o * o
+                - 2 * s * (dot - o * codeSums[row])
+                + s * s * codeSquares[row];
+        return (float) Math.max(0.0, distance);
+    }
+
+    /**
+     * Reconstruct an approximate float vector from a row.
+     */
+    public float[] dequantize(int row) {
+        float[] vector = new float[dimension];
+        int base = row * dimension;
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = offsets[row] + scales[row] * codes[base + i];
+        }
+        return vector;
+    }
+
+    /**
+     * Resident size of the given number of rows in bytes.
+     */
+    public long bytesFor(int rows) {
+        return (long) rows * (dimension + 4L * Float.BYTES);
+    }
+
+    /**
+     * Precompute the per-query terms of the expanded distance once per search.
+     */
+    public static QueryStats queryStats(float[] query) {
+        double sum = 0;
+        double squareSum = 0;
+        for (float q : query) {
+            sum += q;
+            squareSum += (double) q * q;
+        }
+        return new QueryStats(sum, squareSum);
+    }
+
+    public record QueryStats(double sum, double squareSum) {}
+}
@@ -0,0 +1,33 @@
+package org.acme.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form of free-text search queries, used as cache key and as the text that gets embedded.
+ * Queries that differ only in Unicode representation, case or whitespace map to the same key.
+ */
+public class QueryNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    private QueryNormalizer() {
+        // Utility class
+    }
+
+    /**
+     * NFKC-normalize, collapse runs of whitespace to a single space, trim and lowercase.
+     *
+     * @param query raw query text, may be null
+     * @return canonical query, empty for null or blank input
+     */
+    public static String canonicalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        // NFKC first: it folds full-width letters and turns no-break spaces into plain ones
+        String normalized = Normalizer.normalize(query, Normalizer.Form.NFKC);
+        return WHITESPACE.matcher(normalized).replaceAll(" ").strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,96 @@
+package org.acme.util;
+
+import java.util.Arrays;
+
+/**
+ * Reciprocal Rank Fusion over id rankings: score(id) = sum over rankings of 1 / (k + rank), rank starting at 1.
+ * Works on primitive ids and scores only ({@link LongLongMap} from id to a dense slot), so no entity is touched
+ * until the caller hydrates the page it actually returns.
+ */
+public class ReciprocalRankFusion {
+
+    /** Smoothing constant from the original RRF paper. */
+    public static final int DEFAULT_K = 60;
+
+    private static final long ABSENT = -1;
+
+    private final LongLongMap slotById;
+    private long[] ids;
+    private double[] scores;
+    private int size;
+    private final int k;
+
+    public ReciprocalRankFusion(int k, int expectedIds) {
+        this.k = k;
+        this.slotById = new LongLongMap(expectedIds);
+        this.ids = new long[Math.max(4, expectedIds)];
+        this.scores = new double[ids.length];
+    }
+
+    /**
+     * Add one ranking, best first. Ids must be unique within a ranking.
+     *
+     * @param ids ranked ids
+     * @param count number of leading entries of {@code ids} to use
+     */
+    public void addRanking(long[] ids, int count) {
+        for (int i = 0; i < count; i++) {
+            add(ids[i], 1.0 / (k + i + 1));
+        }
+    }
+
+    /**
+     * Number of distinct ids fused so far.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Fused score of an id, 0 if it is in no ranking.
+     */
+    public double score(long id) {
+        long slot = slotById.get(id, ABSENT);
+        return slot == ABSENT ? 0 : scores[(int) slot];
+    }
+
+    /**
+     * All fused ids, highest score first; ties go to the larger id.
+     */
+    public long[] ranked() {
+        // Replace score and id by their ranks among all scores and all ids, pack both into one long
+        // and sort that primitively: ascending keys are (score, id) ascending, read back in reverse
+        long[] sortedIds = Arrays.copyOf(ids, size);
+        double[] sortedScores = Arrays.copyOf(scores, size);
+        Arrays.sort(sortedIds);
+        Arrays.sort(sortedScores);
+
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            long scoreRank = Arrays.binarySearch(sortedScores, scores[i]);
+            long idRank = Arrays.binarySearch(sortedIds, ids[i]);
+            keys[i] = scoreRank << 32 | idRank;
+        }
+        Arrays.sort(keys);
+
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[size - 1 - i] = sortedIds[(int) keys[i]];
+        }
+        return result;
+    }
+
+    private void add(long id, double score) {
+        long slot = slotById.get(id, ABSENT);
+        if (slot == ABSENT) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            slot = size++;
+            ids[(int) slot] = id;
+            slotById.put(id, slot);
+        }
+        scores[(int) slot] += score;
+    }
+}
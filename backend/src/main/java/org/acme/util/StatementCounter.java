@@ -0,0 +1,51 @@
+package org.acme.util;
+
+/**
+ * Counts SQL statements issued by the current thread between {@link #start()} and {@link #stop()}.
+ * Fed by the Hibernate statement inspector and read per request, so an endpoint's fetch plan
+ * (lazy associations, fetch joins, projections) shows up as a single number.
+ */
+public class StatementCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private StatementCounter() {
+        // Utility class
+    }
+
+    /**
+     * Begin counting on this thread, discarding any previous count.
+     */
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Count one statement; a no-op when counting has not been started on this thread.
+     */
+    public static void record() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    /**
+     * Statements counted so far, or -1 when counting has not been started on this thread.
+     */
+    public static int current() {
+        int[] count = COUNT.get();
+        return count != null ? count[0] : -1;
+    }
+
+    /**
+     * Stop counting on this thread.
+     *
+     * @return statements counted since {@link #start()}, or -1 if counting was not started
+     */
+    public static int stop() {
+        int result = current();
+        COUNT.remove();
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package org.acme.util;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized terms of a comma-separated list such as project tags or required skills.
+ * Mirrors the {@code tag_list}/{@code skill_list} generated columns (V9 migration), so filter values
+ * compare equal to what the database stored.
+ */
+public class TermList {
+
+    private static final Pattern SEPARATOR = Pattern.compile("\\s*,\\s*");
+    private static final String[] EMPTY = new String[0];
+
+    private TermList() {
+        // Utility class
+    }
+
+    /**
+     * Split on commas, trim, lowercase and drop empty and repeated terms, keeping first-seen order.
+     *
+     * @param list comma-separated terms, may be null
+     * @return distinct terms, empty for null or blank input
+     */
+    public static String[] parse(String list) {
+        if (list == null) {
+            return EMPTY;
+        }
+        // Same steps as lower(btrim(...)) + regexp_split_to_array in SQL; btrim only strips spaces
+        String trimmed = list.replaceAll("^ +| +$", "").toLowerCase(Locale.ROOT);
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : SEPARATOR.split(trimmed)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms.toArray(EMPTY);
+    }
+}
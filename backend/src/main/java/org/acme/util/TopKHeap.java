@@ -0,0 +1,119 @@
+package org.acme.util;
+
+/**
+ * Bounded max-heap that keeps the K smallest (distance, id) pairs seen so far.
+ * Backed by two primitive arrays, so offering a candidate allocates nothing.
+ * The root is the worst retained candidate and is replaced when a closer one arrives.
+ */
+public class TopKHeap {
+
+    private final float[] distances;
+    private final long[] ids;
+    private int size;
+
+    /**
+     * @param k maximum number of pairs to keep
+     */
+    public TopKHeap(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.distances = new float[k];
+        this.ids = new long[k];
+    }
+
+    /**
+     * Offer a candidate. It is kept only if fewer than K pairs are held or it is closer than the current worst.
+     *
+     * @param id candidate id
+     * @param distance candidate distance, smaller is better
+     */
+    public void offer(long id, float distance) {
+        int k = distances.length;
+        if (size < k) {
+            distances[size] = distance;
+            ids[size] = id;
+            siftUp(size++);
+        } else if (k > 0 && distance < distances[0]) {
+            distances[0] = distance;
+            ids[0] = id;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Number of pairs currently held.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Distance of the worst retained candidate, or {@code Float.POSITIVE_INFINITY} while the heap is not full.
+     * Useful as a pruning threshold.
+     */
+    public float threshold() {
+        return size < distances.length ? Float.POSITIVE_INFINITY : distances[0];
+    }
+
+    /**
+     * Drain the heap into the given arrays in ascending distance order.
+     * The heap is empty afterwards.
+     *
+     * @param outIds receives ids, closest first
+     * @param outDistances receives distances, closest first
+     * @return number of pairs written
+     */
+    public int drainSorted(long[] outIds, float[] outDistances) {
+        int count = size;
+        // Repeatedly move the current maximum to the end of the shrinking heap
+        for (int last = count - 1; last >= 0; last--) {
+            outIds[last] = ids[0];
+            outDistances[last] = distances[0];
+            size = last;
+            if (last > 0) {
+                distances[0] = distances[last];
+                ids[0] = ids[last];
+                siftDown(0);
+            }
+        }
+        return count;
+    }
+
+    private void siftUp(int i) {
+        float d = distances[i];
+        long id = ids[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (distances[parent] >= d) {
+                break;
+            }
+            distances[i] = distances[parent];
+            ids[i] = ids[parent];
+            i = parent;
+        }
+        distances[i] = d;
+        ids[i] = id;
+    }
+
+    private void siftDown(int i) {
+        float d = distances[i];
+        long id = ids[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && distances[right] > distances[child]) {
+                child = right;
+            }
+            if (d >= distances[child]) {
+                break;
+            }
+            distances[i] = distances[child];
+            ids[i] = ids[child];
+            i = child;
+        }
+        distances[i] = d;
+        ids[i] = id;
+    }
+}
@@ -1,10 +1,15 @@
 package org.acme.util;
 
+import jdk.incubator.vector.ByteVector;
 import jdk.incubator.vector.FloatVector;
 import jdk.incubator.vector.VectorMask;
 import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
 import jdk.incubator.vector.VectorSpecies;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
  * Utility class for fast vector operations using Java Vector API (Preview).
  * Requires --add-modules jdk.incubator.vector and --enable-preview flags.
@@ -12,6 +17,11 @@ import jdk.incubator.vector.VectorSpecies;
 public class VectorUtils {
 
     private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    // Byte species with as many lanes as SPECIES; shapes below 64 bits do not exist
+    private static final VectorSpecies<Byte> BYTE_SPECIES = SPECIES.length() * Byte.SIZE >= 64
+            ? VectorSpecies.of(byte.class, VectorShape.forBitSize(SPECIES.length() * Byte.SIZE))
+            : null;
+    private static final int BINARY_HEADER_BYTES = 4;
 
     private VectorUtils() {
         // Utility class
@@ -55,6 +65,74 @@ public class VectorUtils {
         return acc.reduceLanes(VectorOperators.ADD);
     }
 
+    /**
+     * Calculates the squared Euclidean distance (L2^2) between a query vector and one row
+     * of a contiguous row-major matrix. Avoids copying the row out of the matrix.
+     *
+     * @param query query vector, its length is the row width
+     * @param matrix row-major matrix of vectors
+     * @param offset index of the first element of the row in the matrix
+     * @return sum of squared differences
+     */
+    public static float l2DistanceSquared(float[] query, float[] matrix, int offset) {
+        int len = query.length;
+
+        int i = 0;
+        FloatVector acc = FloatVector.zero(SPECIES);
+
+        int upper = SPECIES.loopBound(len);
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(SPECIES, query, i);
+            FloatVector vb = FloatVector.fromArray(SPECIES, matrix, offset + i);
+            FloatVector diff = va.sub(vb);
+            acc = diff.fma(diff, acc);
+        }
+
+        if (i < len) {
+            VectorMask<Float> m = SPECIES.indexInRange(i, len);
+            FloatVector va = FloatVector.fromArray(SPECIES, query, i, m);
+            FloatVector vb = FloatVector.fromArray(SPECIES, matrix, offset + i, m);
+            FloatVector diff = va.sub(vb);
+            acc = diff.fma(diff, acc);
+        }
+
+        return acc.reduceLanes(VectorOperators.ADD);
+    }
+
+    /**
+     * Dot product of a float query with one row of int8 codes, widening the codes to float lanes.
+     * Used by the coarse pass over quantized embeddings.
+     *
+     * @param query query vector, its length is the row width
+     * @param codes row-major matrix of int8 codes
+     * @param offset index of the first code of the row
+     * @return sum of query[i] * codes[offset + i]
+     */
+    public static float dotProductInt8(float[] query, byte[] codes, int offset) {
+        int len = query.length;
+        int i = 0;
+        float sum = 0.0f;
+
+        if (BYTE_SPECIES != null) {
+            FloatVector acc = FloatVector.zero(SPECIES);
+            int upper = SPECIES.loopBound(len);
+            for (; i < upper; i += SPECIES.length()) {
+                FloatVector vq = FloatVector.fromArray(SPECIES, query, i);
+                // Same lane count as SPECIES, so B2F widens into exactly one float vector
+                FloatVector vc = (FloatVector) ByteVector.fromArray(BYTE_SPECIES, codes, offset + i)
+                        .convertShape(VectorOperators.B2F, SPECIES, 0);
+                acc = vq.fma(vc, acc);
+            }
+            sum = acc.reduceLanes(VectorOperators.ADD);
+        }
+
+        // Scalar tail, or the whole row when no byte shape matches the float lane count
+        for (; i < len; i++) {
+            sum += query[i] * codes[offset + i];
+        }
+        return sum;
+    }
+
     /**
      * Calculates the actual Euclidean distance (L2) between two vectors.
      * For ranking/comparison, l2DistanceSquared is faster and equivalent.
@@ -88,6 +166,70 @@ public class VectorUtils {
         return result;
     }
 
+    /**
+     * Encodes a float array in pgvector's binary send format:
+     * int16 dimension, int16 reserved (zero), then big-endian float4 values.
+     *
+     * @param vector float array
+     * @return binary representation
+     */
+    public static byte[] toBinary(float[] vector) {
+        if (vector == null || vector.length == 0) return null;
+        ByteBuffer buffer = ByteBuffer.allocate(BINARY_HEADER_BYTES + vector.length * Float.BYTES)
+                .order(ByteOrder.BIG_ENDIAN);
+        buffer.putShort((short) vector.length).putShort((short) 0);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes pgvector's binary send format into a float array.
+     *
+     * @param binary binary representation produced by {@link #toBinary} or {@code vector_send}
+     * @return float array
+     */
+    public static float[] fromBinary(byte[] binary) {
+        if (binary == null || binary.length == 0) return new float[0];
+        ByteBuffer buffer = ByteBuffer.wrap(binary).order(ByteOrder.BIG_ENDIAN);
+        int dimension = Short.toUnsignedInt(buffer.getShort());
+        if (binary.length != BINARY_HEADER_BYTES + dimension * Float.BYTES) {
+            throw new IllegalArgumentException("Binary vector of " + binary.length
+                    + " bytes does not match dimension " + dimension);
+        }
+        float[] result = new float[dimension];
+        buffer.position(BINARY_HEADER_BYTES);
+        buffer.asFloatBuffer().get(result);
+        return result;
+    }
+
+    /**
+     * Encodes a float array as raw little-endian float4 values, without a header.
+     * Used for cache payloads where the length is implied by the byte count.
+     *
+     * @param vector float array
+     * @return 4 bytes per element
+     */
+    public static byte[] toLittleEndianBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes raw little-endian float4 values produced by {@link #toLittleEndianBytes}.
+     *
+     * @param bytes encoded values, a multiple of 4 bytes
+     * @return float array
+     */
+    public static float[] fromLittleEndianBytes(byte[] bytes) {
+        if (bytes.length % Float.BYTES != 0) {
+            throw new IllegalArgumentException("Encoded vector length " + bytes.length + " is not a multiple of 4");
+        }
+        float[] result = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(result);
+        return result;
+    }
+
     /**
      * Converts a float array to a string representation for database storage.
      * PostgreSQL pgvector uses format: [0.1, 0.2, 0.3]
@@ -0,0 +1,2 @@
+-- Keyset pagination of the catalog: ORDER BY created_at DESC, id DESC with (created_at, id) < (?, ?)
+CREATE INDEX idx_projects_created_id ON projects (created_at DESC, id DESC);
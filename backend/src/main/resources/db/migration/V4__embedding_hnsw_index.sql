@@ -0,0 +1,4 @@
+-- HNSW index for database-side nearest-neighbour search (app.search.backend=pgvector)
+-- vector_l2_ops matches the <-> operator and the L2 distance used by the in-JVM backends
+CREATE INDEX IF NOT EXISTS idx_projects_embedding_hnsw ON projects
+    USING hnsw (embedding vector_l2_ops) WITH (m = 16, ef_construction = 64);
@@ -0,0 +1,38 @@
+-- Binary shadow column for project embeddings.
+-- Holds pgvector's binary send format: int16 dimension, int16 reserved, then big-endian float4 values.
+-- The application reads and writes only this column, so no decimal text is formatted or parsed in the JVM.
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS embedding_bin BYTEA;
+
+-- Migrate existing embeddings
+UPDATE projects SET embedding_bin = vector_send(embedding) WHERE embedding IS NOT NULL;
+
+-- Decode the send format back into a vector (inverse of vector_send).
+-- Each float4 is rebuilt exactly from its IEEE 754 sign, exponent and mantissa bits.
+CREATE OR REPLACE FUNCTION vector_from_send(bin BYTEA) RETURNS vector AS $$
+    SELECT array_agg(
+               CASE WHEN s = 1 THEN -1 ELSE 1 END
+               * CASE WHEN e = 0 THEN m * power(2::float8, -149)
+                      ELSE (8388608 + m) * power(2::float8, e - 150) END
+               ORDER BY i)::real[]::vector
+    FROM (
+        SELECT i, (bits >> 31) & 1 AS s, (bits >> 23) & 255 AS e, bits & 8388607 AS m
+        FROM (
+            SELECT i, ('x' || encode(substring(bin FROM 5 + 4 * i FOR 4), 'hex'))::bit(32)::int AS bits
+            FROM generate_series(0, (get_byte(bin, 0) << 8 | get_byte(bin, 1)) - 1) AS i
+        ) words
+    ) parts
+$$ LANGUAGE sql IMMUTABLE STRICT;
+
+-- Keep the pgvector column (used by the HNSW index and SQL-side search) in sync with the binary column
+CREATE OR REPLACE FUNCTION projects_sync_embedding() RETURNS trigger AS $$
+BEGIN
+    NEW.embedding := CASE WHEN NEW.embedding_bin IS NULL THEN NULL ELSE vector_from_send(NEW.embedding_bin) END;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_projects_sync_embedding
+    BEFORE INSERT OR UPDATE OF embedding_bin ON projects
+    FOR EACH ROW EXECUTE FUNCTION projects_sync_embedding();
+
+COMMENT ON COLUMN projects.embedding_bin IS 'Embedding in pgvector binary send format; projects.embedding is derived from it by trigger';
@@ -0,0 +1,19 @@
+-- Background re-embedding jobs; last_project_id is the keyset checkpoint a job resumes from.
+-- The node running a job holds a lease (owner, lease_until) that it renews at every checkpoint.
+CREATE TABLE embedding_jobs (
+    id              BIGSERIAL PRIMARY KEY,
+    status          VARCHAR(20) NOT NULL DEFAULT 'RUNNING',
+    total           INTEGER     NOT NULL DEFAULT 0,
+    processed       INTEGER     NOT NULL DEFAULT 0,
+    failed          INTEGER     NOT NULL DEFAULT 0,
+    last_project_id BIGINT      NOT NULL DEFAULT 0,
+    error           TEXT,
+    owner           VARCHAR(128),
+    lease_until     TIMESTAMP,
+    created_at      TIMESTAMP   NOT NULL DEFAULT now(),
+    updated_at      TIMESTAMP   NOT NULL DEFAULT now(),
+    finished_at     TIMESTAMP
+);
+CREATE INDEX idx_embedding_jobs_status ON embedding_jobs (status);
+-- At most one running job across all nodes
+CREATE UNIQUE INDEX uq_embedding_jobs_running ON embedding_jobs (status) WHERE status = 'RUNNING';
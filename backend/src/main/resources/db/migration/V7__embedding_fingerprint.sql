@@ -0,0 +1,3 @@
+-- SHA-256 of the embedded text and the model that produced the embedding; a mismatch marks the embedding stale
+ALTER TABLE projects ADD COLUMN embedding_hash VARCHAR(64);
+ALTER TABLE projects ADD COLUMN embedding_model VARCHAR(100);
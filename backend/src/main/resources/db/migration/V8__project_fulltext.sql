@@ -0,0 +1,12 @@
+-- Weighted full-text document for the lexical leg of hybrid search.
+-- Content is bilingual, so every field is indexed with both the Russian and the English configuration.
+ALTER TABLE projects ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian'::regconfig, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english'::regconfig, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('russian'::regconfig, coalesce(goal, '')), 'B') ||
+    setweight(to_tsvector('english'::regconfig, coalesce(goal, '')), 'B') ||
+    setweight(to_tsvector('russian'::regconfig, coalesce(key_tasks, '')), 'C') ||
+    setweight(to_tsvector('english'::regconfig, coalesce(key_tasks, '')), 'C')
+) STORED;
+
+CREATE INDEX idx_projects_search_vector ON projects USING GIN (search_vector);
@@ -0,0 +1,66 @@
+-- Tags and required skills as normalized term arrays, so tag/skill filters match whole terms through an index
+-- instead of substring LIKE over the comma-separated text ('ml' no longer matches 'html').
+-- Normalization (split on commas, trim, lowercase, drop empties) must stay in sync with TermList.parse.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE projects ADD COLUMN tag_list TEXT[] GENERATED ALWAYS AS (
+    array_remove(regexp_split_to_array(lower(btrim(coalesce(tags, ''))), '\s*,\s*'), '')
+) STORED;
+
+ALTER TABLE projects ADD COLUMN skill_list TEXT[] GENERATED ALWAYS AS (
+    array_remove(regexp_split_to_array(lower(btrim(coalesce(required_skills, ''))), '\s*,\s*'), '')
+) STORED;
+
+-- Serve @> (all of) and && (any of)
+CREATE INDEX idx_projects_tag_list ON projects USING GIN (tag_list);
+CREATE INDEX idx_projects_skill_list ON projects USING GIN (skill_list);
+
+-- Vocabulary of distinct terms for fuzzy lookup (typos, prefixes) through a trigram index
+CREATE TABLE project_terms (
+    kind        VARCHAR(10) NOT NULL,  -- TAG or SKILL
+    term        TEXT NOT NULL,
+    usage_count INTEGER NOT NULL,
+    PRIMARY KEY (kind, term)
+);
+
+CREATE INDEX idx_project_terms_trgm ON project_terms USING GIN (term gin_trgm_ops);
+
+INSERT INTO project_terms (kind, term, usage_count)
+SELECT 'TAG', t, COUNT(DISTINCT p.id) FROM projects p, unnest(p.tag_list) t GROUP BY t;
+
+INSERT INTO project_terms (kind, term, usage_count)
+SELECT 'SKILL', t, COUNT(DISTINCT p.id) FROM projects p, unnest(p.skill_list) t GROUP BY t;
+
+CREATE OR REPLACE FUNCTION project_terms_adjust(p_kind TEXT, p_terms TEXT[], p_delta INTEGER)
+RETURNS void AS $$
+BEGIN
+    IF p_terms IS NULL OR cardinality(p_terms) = 0 THEN
+        RETURN;
+    END IF;
+    INSERT INTO project_terms (kind, term, usage_count)
+    SELECT p_kind, t, p_delta FROM (SELECT DISTINCT unnest(p_terms) AS t) s
+    ON CONFLICT (kind, term) DO UPDATE SET usage_count = project_terms.usage_count + EXCLUDED.usage_count;
+    DELETE FROM project_terms WHERE kind = p_kind AND term = ANY(p_terms) AND usage_count <= 0;
+END;
+$$ LANGUAGE plpgsql;
+
+-- AFTER trigger: generated columns are only computed by then
+CREATE OR REPLACE FUNCTION projects_sync_terms()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM project_terms_adjust('TAG', OLD.tag_list, -1);
+        PERFORM project_terms_adjust('SKILL', OLD.skill_list, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM project_terms_adjust('TAG', NEW.tag_list, 1);
+        PERFORM project_terms_adjust('SKILL', NEW.skill_list, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_projects_sync_terms
+    AFTER INSERT OR DELETE OR UPDATE OF tags, required_skills ON projects
+    FOR EACH ROW
+    EXECUTE FUNCTION projects_sync_terms();
@@ -0,0 +1,73 @@
+package org.acme.service;
+
+import org.acme.dto.ProjectDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectDtoCodecTest {
+
+    private final ProjectDtoCodec codec = new ProjectDtoCodec();
+
+    @Test
+    public void testRoundTripWithNullFields() {
+        String none = null;
+        ProjectDto dto = new ProjectDto(null, null, none, none, none, none, none, none, none, none, none, none,
+                false, false, false, none, none, none, null, null);
+
+        byte[] encoded = codec.encode(dto);
+        assertEquals(ProjectDtoCodec.FORMAT_PLAIN, encoded[0]);
+        assertEquals(dto, codec.decode(encoded));
+    }
+
+    @Test
+    public void testRoundTripEveryFlagCombination() {
+        for (int flags = 0; flags < 8; flags++) {
+            ProjectDto dto = project("Title", (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0);
+            assertEquals(dto, codec.decode(codec.encode(dto)), "flags " + flags);
+        }
+    }
+
+    @Test
+    public void testRoundTripKeepsUnicodeAndNanos() {
+        ProjectDto dto = new ProjectDto(Long.MAX_VALUE, -1L, "Мария", "m@nsu.ru", "Поиск 🔍", "", "tasks",
+                "value", "Java, SQL", "HARD", "ml,nlp", "curriculum", true, false, true, "bounds", "policy",
+                "PUBLISHED", Instant.ofEpochSecond(-5, 999_999_999), Instant.parse("2026-10-17T00:00:00.000001Z"));
+
+        assertEquals(dto, codec.decode(codec.encode(dto)));
+    }
+
+    @Test
+    public void testFormatSwitchesAtCompressionThreshold() {
+        int emptyTitleBody = codec.encode(project("", true, true, true)).length - 1;
+        int pad = ProjectDtoCodec.COMPRESSION_THRESHOLD - emptyTitleBody;
+
+        ProjectDto below = project("a".repeat(pad - 1), true, false, true);
+        byte[] plain = codec.encode(below);
+        assertEquals(ProjectDtoCodec.FORMAT_PLAIN, plain[0]);
+        assertEquals(ProjectDtoCodec.COMPRESSION_THRESHOLD, plain.length);
+        assertEquals(below, codec.decode(plain));
+
+        ProjectDto atThreshold = project("a".repeat(pad), false, true, false);
+        byte[] deflated = codec.encode(atThreshold);
+        assertEquals(ProjectDtoCodec.FORMAT_DEFLATED, deflated[0]);
+        assertTrue(deflated.length < ProjectDtoCodec.COMPRESSION_THRESHOLD);
+        assertEquals(atThreshold, codec.decode(deflated));
+    }
+
+    @Test
+    public void testRejectsUnknownFormat() {
+        byte[] encoded = codec.encode(project("Title", false, false, false));
+        encoded[0] = 9;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+
+    private static ProjectDto project(String title, boolean thesis, boolean practice, boolean coursework) {
+        return new ProjectDto(42L, 7L, "Mentor", "mentor@nsu.ru", title, "goal", null, "value",
+                "Java", "MEDIUM", null, "curriculum", thesis, practice, coursework, null, "policy",
+                "DRAFT", Instant.parse("2026-01-15T12:00:00.123456Z"), null);
+    }
+}
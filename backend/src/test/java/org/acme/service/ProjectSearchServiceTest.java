@@ -0,0 +1,59 @@
+package org.acme.service;
+
+import org.acme.entity.Project;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectSearchServiceTest {
+
+    @Test
+    public void testFiltersApplyBeforeCandidateLimit() {
+        // A common term with a restrictive filter: the match that passes it may rank far below the limit
+        // among all rows, so every predicate must be in the statement the LIMIT applies to
+        SemanticSearchFilter filter = new SemanticSearchFilter(true, 7L, Project.Difficulty.HARD,
+                true, false, false, new String[] {"nlp"}, true, new String[] {"java", "sql"}, false, 7L);
+        List<Object> params = new ArrayList<>();
+        String sql = ProjectSearchService.lexicalSql("search", 500, filter, params);
+
+        int limit = sql.indexOf(" ORDER BY ");
+        assertTrue(limit > 0, sql);
+        String where = sql.substring(0, limit);
+        assertTrue(where.contains("search_vector @@ query"), sql);
+        assertTrue(where.contains(" AND (status = 'PUBLISHED' OR mentor_id = ?2)"), sql);
+        assertTrue(where.contains(" AND difficulty = ?3"), sql);
+        assertTrue(where.contains(" AND thesis_ok"), sql);
+        assertFalse(where.contains("practice_ok"), sql);
+        assertTrue(where.contains(" AND tag_list @> CAST(?4 AS text[])"), sql);
+        assertTrue(where.contains(" AND skill_list && CAST(?5 AS text[])"), sql);
+        assertTrue(where.contains(" AND mentor_id = ?6"), sql);
+        assertTrue(sql.endsWith(" LIMIT ?7"), sql);
+
+        assertEquals(7, params.size());
+        assertEquals("search", params.get(0));
+        assertEquals("HARD", params.get(2));
+        assertArrayEquals(new String[] {"nlp"}, (String[]) params.get(3));
+        assertEquals(500, params.get(6));
+    }
+
+    @Test
+    public void testStudentsOnlySeePublished() {
+        List<Object> params = new ArrayList<>();
+        String sql = ProjectSearchService.lexicalSql("ml", 50, SemanticSearchFilter.PUBLISHED, params);
+
+        assertTrue(sql.contains("WHERE search_vector @@ query AND status = 'PUBLISHED' ORDER BY"), sql);
+        assertEquals(List.of("ml", 50), params);
+    }
+
+    @Test
+    public void testAdminsAreNotFiltered() {
+        List<Object> params = new ArrayList<>();
+        String sql = ProjectSearchService.lexicalSql("ml", 50, SemanticSearchFilter.NONE, params);
+
+        assertTrue(sql.contains("WHERE search_vector @@ query ORDER BY ts_rank(search_vector, query) DESC, id DESC LIMIT ?2"), sql);
+        assertEquals(List.of("ml", 50), params);
+    }
+}
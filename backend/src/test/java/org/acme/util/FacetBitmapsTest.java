@@ -0,0 +1,64 @@
+package org.acme.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FacetBitmapsTest {
+
+    private static FacetBitmaps sample() {
+        FacetBitmaps bitmaps = new FacetBitmaps();
+        bitmaps.put(1, Map.of("difficulty", List.of("EASY"), "tags", List.of("ml", "python")));
+        bitmaps.put(2, Map.of("difficulty", List.of("MEDIUM"), "tags", List.of("ml")));
+        bitmaps.put(3, Map.of("difficulty", List.of("EASY"), "tags", List.of("ux")));
+        return bitmaps;
+    }
+
+    @Test
+    public void testRetainAllAndAny() {
+        FacetBitmaps bitmaps = sample();
+
+        BitSet all = bitmaps.docs();
+        bitmaps.retain(all, "tags", List.of("ml", "python"), true);
+        assertEquals(BitSet.valueOf(new long[]{0b10}), all);
+
+        BitSet any = bitmaps.docs();
+        bitmaps.retain(any, "tags", List.of("python", "ux"), false);
+        assertEquals(BitSet.valueOf(new long[]{0b1010}), any);
+
+        BitSet unknown = bitmaps.docs();
+        bitmaps.retain(unknown, "tags", List.of("ml", "rust"), true);
+        assertTrue(unknown.isEmpty());
+    }
+
+    @Test
+    public void testCountsWithinResultSet() {
+        FacetBitmaps bitmaps = sample();
+        BitSet easy = bitmaps.docs();
+        bitmaps.retain(easy, "difficulty", List.of("EASY"), true);
+
+        Map<String, Integer> tagCounts = bitmaps.counts("tags", easy, 10);
+        assertEquals(Map.of("ml", 1, "python", 1, "ux", 1), tagCounts);
+        assertEquals(List.of("ml", "python"), List.copyOf(bitmaps.counts("tags", easy, 2).keySet()));
+        assertEquals(Map.of("ml", 2, "python", 1, "ux", 1), bitmaps.counts("tags", bitmaps.docs(), 10));
+        assertEquals("ml", bitmaps.counts("tags", bitmaps.docs(), 10).keySet().iterator().next());
+    }
+
+    @Test
+    public void testPutReplacesAndRemoveDropsPostings() {
+        FacetBitmaps bitmaps = sample();
+        bitmaps.put(2, Map.of("difficulty", List.of("HARD"), "tags", List.of("rust")));
+        assertEquals(3, bitmaps.size());
+        assertEquals(Map.of("ml", 1, "python", 1, "ux", 1, "rust", 1), bitmaps.counts("tags", bitmaps.docs(), 10));
+
+        assertTrue(bitmaps.remove(3));
+        assertFalse(bitmaps.remove(3));
+        assertFalse(bitmaps.contains(3));
+        assertTrue(bitmaps.counts("tags", bitmaps.docs(), 10).keySet().stream().noneMatch("ux"::equals));
+        assertEquals(Map.of("EASY", 1, "HARD", 1), bitmaps.counts("difficulty", bitmaps.docs(), 10));
+    }
+}
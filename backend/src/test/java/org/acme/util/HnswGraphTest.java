@@ -0,0 +1,109 @@
+package org.acme.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class HnswGraphTest {
+
+    private static final int DIMENSION = 32;
+
+    @Test
+    public void testRecallAgainstExactScan() {
+        Random random = new Random(7);
+        float[][] vectors = new float[2000][];
+        HnswGraph graph = new HnswGraph(DIMENSION, 16, 100, 42L);
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random);
+            graph.insert(i, vectors[i]);
+        }
+
+        int k = 10;
+        int found = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random);
+            Set<Long> exact = exactNearest(vectors, query, k);
+
+            long[] ids = new long[k];
+            float[] distances = new float[k];
+            int count = graph.search(query, k, 50, null, ids, distances);
+            assertEquals(k, count);
+            for (int i = 0; i < count; i++) {
+                if (exact.contains(ids[i])) found++;
+                if (i > 0) assertTrue(distances[i - 1] <= distances[i]);
+            }
+        }
+
+        double recall = (double) found / (queries * k);
+        assertTrue(recall >= 0.9, "recall@10 too low: " + recall);
+    }
+
+    @Test
+    public void testDeletedAndFilteredIdsAreNotReturned() {
+        Random random = new Random(11);
+        HnswGraph graph = new HnswGraph(DIMENSION, 8, 50, 42L);
+        float[] target = randomVector(random);
+        graph.insert(0, target);
+        for (int i = 1; i < 200; i++) {
+            graph.insert(i, randomVector(random));
+        }
+
+        long[] ids = new long[5];
+        float[] distances = new float[5];
+        graph.search(target, 5, 20, null, ids, distances);
+        assertEquals(0, ids[0]);
+
+        assertTrue(graph.delete(0));
+        assertEquals(199, graph.size());
+        assertEquals(1, graph.deletedCount());
+        int count = graph.search(target, 5, 20, id -> id % 2 == 0, ids, distances);
+        for (int i = 0; i < count; i++) {
+            assertNotEquals(0, ids[i]);
+            assertEquals(0, ids[i] % 2);
+        }
+    }
+
+    @Test
+    public void testReinsertReplacesVector() {
+        Random random = new Random(3);
+        HnswGraph graph = new HnswGraph(DIMENSION, 8, 50, 42L);
+        for (int i = 0; i < 50; i++) {
+            graph.insert(i, randomVector(random));
+        }
+        float[] moved = randomVector(random);
+        graph.insert(10, moved);
+
+        long[] ids = new long[1];
+        float[] distances = new float[1];
+        graph.search(moved, 1, 20, null, ids, distances);
+        assertEquals(10, ids[0]);
+        assertEquals(0.0f, distances[0], 0.0001f);
+        assertEquals(50, graph.size());
+        // The replaced node stays as a tombstone until the graph is rebuilt
+        assertEquals(1, graph.deletedCount());
+    }
+
+    private static Set<Long> exactNearest(float[][] vectors, float[] query, int k) {
+        TopKHeap heap = new TopKHeap(k);
+        for (int i = 0; i < vectors.length; i++) {
+            heap.offer(i, VectorUtils.l2DistanceSquared(query, vectors[i]));
+        }
+        long[] ids = new long[k];
+        heap.drainSorted(ids, new float[k]);
+        Set<Long> result = new HashSet<>();
+        for (long id : ids) result.add(id);
+        return result;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] v = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            v[i] = random.nextFloat();
+        }
+        return v;
+    }
+}
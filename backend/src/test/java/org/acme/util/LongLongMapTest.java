@@ -0,0 +1,61 @@
+package org.acme.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongLongMapTest {
+
+    @Test
+    public void testPutGetAndOverwrite() {
+        LongLongMap map = new LongLongMap(2);
+        for (long key = 1; key <= 100; key++) {
+            map.put(key, key * 10);
+        }
+        map.put(7, -1);
+
+        assertEquals(100, map.size());
+        assertEquals(-1, map.get(7, 0));
+        assertEquals(1000, map.get(100, 0));
+        assertEquals(42, map.get(101, 42));
+        assertFalse(map.containsKey(0));
+    }
+
+    @Test
+    public void testRemoveKeepsCollidingKeysReachable() {
+        LongLongMap map = new LongLongMap(1000);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            } else {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 2000; key++) {
+            assertEquals(expected.getOrDefault(key, -1L), map.get(key, -1));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        LongLongMap map = new LongLongMap(4);
+        map.put(1, 1);
+        map.put(2, 2);
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(1));
+        map.put(2, 3);
+        assertEquals(3, map.get(2, 0));
+    }
+}
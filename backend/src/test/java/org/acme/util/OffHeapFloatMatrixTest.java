@@ -0,0 +1,49 @@
+package org.acme.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapFloatMatrixTest {
+
+    private static final int DIMENSION = 8;
+
+    @Test
+    public void testSetAndGetRoundTrip() {
+        OffHeapFloatMatrix matrix = new OffHeapFloatMatrix(DIMENSION, 2);
+        matrix.set(0, row(1.0f));
+        matrix.set(1, row(2.0f));
+
+        assertArrayEquals(row(1.0f), matrix.get(0, new float[DIMENSION]));
+        assertArrayEquals(row(2.0f), matrix.get(1, new float[DIMENSION]));
+    }
+
+    @Test
+    public void testGrowingKeepsRows() {
+        OffHeapFloatMatrix matrix = new OffHeapFloatMatrix(DIMENSION, 1);
+        matrix.set(0, row(3.0f));
+        matrix.ensureCapacity(5);
+        matrix.set(4, row(4.0f));
+
+        assertArrayEquals(row(3.0f), matrix.get(0, new float[DIMENSION]));
+        assertArrayEquals(row(4.0f), matrix.get(4, new float[DIMENSION]));
+        assertEquals(5L * DIMENSION * Float.BYTES, matrix.bytesFor(5));
+    }
+
+    @Test
+    public void testMoveCopiesRow() {
+        OffHeapFloatMatrix matrix = new OffHeapFloatMatrix(DIMENSION, 3);
+        matrix.set(0, row(1.0f));
+        matrix.set(2, row(5.0f));
+        matrix.move(2, 0);
+
+        assertArrayEquals(row(5.0f), matrix.get(0, new float[DIMENSION]));
+    }
+
+    private static float[] row(float base) {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = base + i * 0.5f;
+        }
+        return vector;
+    }
+}
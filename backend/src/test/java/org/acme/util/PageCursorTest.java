@@ -0,0 +1,40 @@
+package org.acme.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageCursorTest {
+
+    @Test
+    public void testBrowseRoundTrip() {
+        Instant createdAt = Instant.parse("2026-01-15T12:00:00.123456Z");
+        PageCursor cursor = PageCursor.browse(createdAt, 42);
+
+        PageCursor decoded = PageCursor.decode(cursor.encode(), PageCursor.Kind.BROWSE);
+        assertEquals(cursor, decoded);
+        assertEquals(createdAt, decoded.createdAt());
+        assertEquals(42, decoded.id());
+    }
+
+    @Test
+    public void testSearchRoundTripKeepsExactScore() {
+        double score = 1.0 / 61 + 1.0 / 63;
+        String token = PageCursor.search(score, 7).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        PageCursor decoded = PageCursor.decode(token, PageCursor.Kind.SEARCH);
+        assertEquals(score, decoded.score());
+        assertEquals(7, decoded.id());
+    }
+
+    @Test
+    public void testRejectsForeignAndMalformedTokens() {
+        String browse = PageCursor.browse(Instant.EPOCH, 1).encode();
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(browse, PageCursor.Kind.SEARCH));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor!", PageCursor.Kind.BROWSE));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("YjoxMg", PageCursor.Kind.BROWSE));
+    }
+}
@@ -0,0 +1,114 @@
+package org.acme.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class QuantizedMatrixTest {
+
+    private static final int DIMENSION = 64;
+
+    @Test
+    public void testDotProductInt8MatchesScalar() {
+        Random random = new Random(5);
+        float[] query = new float[37];
+        byte[] codes = new byte[3 + query.length];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = random.nextFloat() - 0.5f;
+        }
+        random.nextBytes(codes);
+
+        float expected = 0.0f;
+        for (int i = 0; i < query.length; i++) {
+            expected += query[i] * codes[3 + i];
+        }
+        assertEquals(expected, VectorUtils.dotProductInt8(query, codes, 3), 0.001f);
+    }
+
+    @Test
+    public void testDequantizeIsCloseToOriginal() {
+        Random random = new Random(9);
+        QuantizedMatrix matrix = new QuantizedMatrix(DIMENSION, 1);
+        float[] vector = randomVector(random);
+        matrix.set(0, vector);
+
+        float[] restored = matrix.dequantize(0);
+        // One quantization step of a [0, 1) range spread over 255 levels
+        for (int i = 0; i < DIMENSION; i++) {
+            assertEquals(vector[i], restored[i], 1.0f / 255);
+        }
+        float exact = VectorUtils.l2DistanceSquared(vector, restored);
+        assertEquals(exact, matrix.distance(vector, QuantizedMatrix.queryStats(vector), 0), 0.01f);
+    }
+
+    @Test
+    public void testRecallWithExactRerank() {
+        Random random = new Random(13);
+        int rows = 2000;
+        float[][] vectors = new float[rows][];
+        QuantizedMatrix matrix = new QuantizedMatrix(DIMENSION, 16);
+        matrix.ensureCapacity(rows);
+        for (int i = 0; i < rows; i++) {
+            vectors[i] = randomVector(random);
+            matrix.set(i, vectors[i]);
+        }
+
+        int k = 10;
+        int rerankFactor = 4;
+        int queries = 50;
+        int coarseFound = 0;
+        int rerankFound = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random);
+            Set<Long> exact = exactNearest(vectors, query, k);
+
+            QuantizedMatrix.QueryStats stats = QuantizedMatrix.queryStats(query);
+            TopKHeap coarse = new TopKHeap(k * rerankFactor);
+            for (int i = 0; i < rows; i++) {
+                coarse.offer(i, matrix.distance(query, stats, i));
+            }
+            long[] candidates = new long[k * rerankFactor];
+            coarse.drainSorted(candidates, new float[candidates.length]);
+
+            TopKHeap reranked = new TopKHeap(k);
+            for (int i = 0; i < candidates.length; i++) {
+                if (i < k && exact.contains(candidates[i])) coarseFound++;
+                reranked.offer(candidates[i], VectorUtils.l2DistanceSquared(query, vectors[(int) candidates[i]]));
+            }
+            long[] ids = new long[k];
+            reranked.drainSorted(ids, new float[k]);
+            for (long id : ids) {
+                if (exact.contains(id)) rerankFound++;
+            }
+        }
+
+        double coarseRecall = (double) coarseFound / (queries * k);
+        double rerankRecall = (double) rerankFound / (queries * k);
+        assertTrue(coarseRecall >= 0.9, "recall@10 of the int8 scan alone too low: " + coarseRecall);
+        assertTrue(rerankRecall >= 0.95, "recall@10 after rerank too low: " + rerankRecall);
+        assertTrue(matrix.bytesFor(rows) * 3 < (long) rows * DIMENSION * Float.BYTES);
+    }
+
+    private static Set<Long> exactNearest(float[][] vectors, float[] query, int k) {
+        TopKHeap heap = new TopKHeap(k);
+        for (int i = 0; i < vectors.length; i++) {
+            heap.offer(i, VectorUtils.l2DistanceSquared(query, vectors[i]));
+        }
+        long[] ids = new long[k];
+        heap.drainSorted(ids, new float[k]);
+        Set<Long> result = new HashSet<>();
+        for (long id : ids) result.add(id);
+        return result;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] v = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            v[i] = random.nextFloat();
+        }
+        return v;
+    }
+}
@@ -0,0 +1,31 @@
+package org.acme.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryNormalizerTest {
+
+    @Test
+    public void testCaseAndWhitespaceVariantsShareKey() {
+        String expected = "machine learning";
+        assertEquals(expected, QueryNormalizer.canonicalize("Machine Learning"));
+        assertEquals(expected, QueryNormalizer.canonicalize("  machine \t\n LEARNING "));
+        // No-break space and ideographic space
+        assertEquals(expected, QueryNormalizer.canonicalize("machine learning"));
+        assertEquals(expected, QueryNormalizer.canonicalize("machine　learning"));
+    }
+
+    @Test
+    public void testCompatibilityCharactersAreFolded() {
+        // Full-width Latin letters and the "ﬁ" ligature
+        assertEquals("java", QueryNormalizer.canonicalize("ＪＡＶＡ"));
+        assertEquals("file", QueryNormalizer.canonicalize("ﬁle"));
+        assertEquals("нейросети", QueryNormalizer.canonicalize("НЕЙРОСЕТИ "));
+    }
+
+    @Test
+    public void testNullAndBlank() {
+        assertEquals("", QueryNormalizer.canonicalize(null));
+        assertEquals("", QueryNormalizer.canonicalize(" \t "));
+    }
+}
@@ -0,0 +1,62 @@
+package org.acme.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class ReciprocalRankFusionTest {
+
+    @Test
+    public void testIdsInBothRankingsWin() {
+        ReciprocalRankFusion fusion = new ReciprocalRankFusion(ReciprocalRankFusion.DEFAULT_K, 4);
+        fusion.addRanking(new long[] {1, 2, 3}, 3);
+        fusion.addRanking(new long[] {3, 4}, 2);
+
+        // 3: 1/63 + 1/61, 1: 1/61, 4: 1/62, 2: 1/62 → ties broken by larger id
+        assertArrayEquals(new long[] {3, 1, 4, 2}, fusion.ranked());
+        assertEquals(4, fusion.size());
+        assertEquals(1.0 / 63 + 1.0 / 61, fusion.score(3), 1e-12);
+        assertEquals(0, fusion.score(99));
+    }
+
+    @Test
+    public void testCountLimitsRankingAndTableGrows() {
+        ReciprocalRankFusion fusion = new ReciprocalRankFusion(ReciprocalRankFusion.DEFAULT_K, 1);
+        long[] ids = new long[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 10_000 - i;
+        }
+        fusion.addRanking(ids, 500);
+        fusion.addRanking(new long[] {42, 0}, 0);
+
+        long[] ranked = fusion.ranked();
+        assertEquals(500, ranked.length);
+        for (int i = 0; i < ranked.length; i++) {
+            assertEquals(ids[i], ranked[i]);
+        }
+    }
+
+    @Test
+    public void testOrderMatchesScoreThenIdComparison() {
+        Random random = new Random(11);
+        ReciprocalRankFusion fusion = new ReciprocalRankFusion(ReciprocalRankFusion.DEFAULT_K, 8);
+        for (int r = 0; r < 3; r++) {
+            long[] ids = random.longs(300, 0, 400).distinct().toArray();
+            fusion.addRanking(ids, ids.length);
+        }
+
+        long[] ranked = fusion.ranked();
+        assertEquals(fusion.size(), ranked.length);
+        for (int i = 1; i < ranked.length; i++) {
+            double previous = fusion.score(ranked[i - 1]);
+            double current = fusion.score(ranked[i]);
+            assertTrue(previous > current || (previous == current && ranked[i - 1] > ranked[i]), "position " + i);
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, new ReciprocalRankFusion(60, 0).ranked().length);
+    }
+}
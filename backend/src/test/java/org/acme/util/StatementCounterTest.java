@@ -0,0 +1,52 @@
+package org.acme.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementCounterTest {
+
+    @Test
+    public void testCountsStatementsBetweenStartAndStop() {
+        StatementCounter.start();
+        StatementCounter.record();
+        StatementCounter.record();
+        assertEquals(2, StatementCounter.current());
+        StatementCounter.record();
+
+        assertEquals(3, StatementCounter.stop());
+        assertEquals(-1, StatementCounter.current());
+    }
+
+    @Test
+    public void testIgnoresStatementsOutsideCounting() {
+        StatementCounter.record();
+        assertEquals(-1, StatementCounter.stop());
+
+        StatementCounter.start();
+        StatementCounter.record();
+        StatementCounter.start();
+        assertEquals(0, StatementCounter.stop());
+    }
+
+    @Test
+    public void testCountsArePerThread() throws InterruptedException {
+        StatementCounter.start();
+        StatementCounter.record();
+
+        AtomicInteger other = new AtomicInteger();
+        Thread thread = Thread.ofVirtual().start(() -> {
+            StatementCounter.record();
+            StatementCounter.start();
+            StatementCounter.record();
+            StatementCounter.record();
+            other.set(StatementCounter.stop());
+        });
+        thread.join();
+
+        assertEquals(2, other.get());
+        assertEquals(1, StatementCounter.stop());
+    }
+}
@@ -0,0 +1,27 @@
+package org.acme.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TermListTest {
+
+    @Test
+    public void testSplitTrimAndLowercase() {
+        assertArrayEquals(new String[]{"ml", "python", "computer vision"},
+                TermList.parse(" ML , Python,Computer Vision "));
+        assertArrayEquals(new String[]{"нейросети", "nlp"}, TermList.parse("Нейросети,\tNLP"));
+    }
+
+    @Test
+    public void testEmptyAndRepeatedTermsAreDropped() {
+        assertArrayEquals(new String[]{"java", "spring"}, TermList.parse("java,, Spring ,JAVA,"));
+        assertEquals(0, TermList.parse(null).length);
+        assertEquals(0, TermList.parse(" , ").length);
+    }
+
+    @Test
+    public void testTermsAreWholeValues() {
+        // Matching is by element, so a short tag is not a substring of a longer one
+        assertFalse(java.util.Arrays.asList(TermList.parse("HTML, CSS")).contains("ml"));
+    }
+}
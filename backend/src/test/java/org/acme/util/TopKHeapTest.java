@@ -0,0 +1,58 @@
+package org.acme.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TopKHeapTest {
+
+    @Test
+    public void testKeepsSmallestInAscendingOrder() {
+        Random random = new Random(42);
+        float[] all = new float[1000];
+        TopKHeap heap = new TopKHeap(10);
+        for (int i = 0; i < all.length; i++) {
+            all[i] = random.nextFloat();
+            heap.offer(i, all[i]);
+        }
+
+        long[] ids = new long[10];
+        float[] distances = new float[10];
+        int count = heap.drainSorted(ids, distances);
+
+        float[] expected = all.clone();
+        Arrays.sort(expected);
+
+        assertEquals(10, count);
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected[i], distances[i]);
+            assertEquals(all[(int) ids[i]], distances[i]);
+        }
+        assertEquals(0, heap.size());
+    }
+
+    @Test
+    public void testFewerCandidatesThanK() {
+        TopKHeap heap = new TopKHeap(5);
+        heap.offer(7, 3.0f);
+        heap.offer(8, 1.0f);
+        assertEquals(Float.POSITIVE_INFINITY, heap.threshold());
+
+        long[] ids = new long[5];
+        float[] distances = new float[5];
+        int count = heap.drainSorted(ids, distances);
+
+        assertEquals(2, count);
+        assertEquals(8, ids[0]);
+        assertEquals(7, ids[1]);
+    }
+
+    @Test
+    public void testZeroCapacity() {
+        TopKHeap heap = new TopKHeap(0);
+        heap.offer(1, 1.0f);
+        assertEquals(0, heap.size());
+    }
+}
@@ -82,4 +82,61 @@ public class VectorUtilsTest {
             assertEquals(original[i], restored[i], 0.0001f);
         }
     }
+
+    @Test
+    public void testL2DistanceSquaredAgainstMatrixRow() {
+        float[] query = new float[1024];
+        float[] matrix = new float[3 * 1024];
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = (float) Math.random();
+        }
+        for (int i = 0; i < query.length; i++) {
+            query[i] = (float) Math.random();
+        }
+
+        for (int row = 0; row < 3; row++) {
+            float[] rowVector = java.util.Arrays.copyOfRange(matrix, row * 1024, (row + 1) * 1024);
+            assertEquals(VectorUtils.l2DistanceSquared(query, rowVector),
+                    VectorUtils.l2DistanceSquared(query, matrix, row * 1024), 0.001f);
+        }
+    }
+
+    @Test
+    public void testBinaryRoundTrip() {
+        float[] original = new float[1024];
+        for (int i = 0; i < original.length; i++) {
+            original[i] = (float) (Math.random() - 0.5);
+        }
+
+        byte[] binary = VectorUtils.toBinary(original);
+        float[] restored = VectorUtils.fromBinary(binary);
+
+        assertEquals(4 + 1024 * 4, binary.length);
+        assertArrayEquals(original, restored);
+    }
+
+    @Test
+    public void testBinaryMatchesPgvectorSendFormat() {
+        // vector_send('[1,-2]') = 0002 0000 3f800000 c0000000
+        byte[] expected = {0, 2, 0, 0, 0x3f, (byte) 0x80, 0, 0, (byte) 0xc0, 0, 0, 0};
+        assertArrayEquals(expected, VectorUtils.toBinary(new float[]{1.0f, -2.0f}));
+        assertArrayEquals(new float[]{1.0f, -2.0f}, VectorUtils.fromBinary(expected));
+    }
+
+    @Test
+    public void testFromBinaryRejectsTruncatedInput() {
+        byte[] truncated = {0, 2, 0, 0, 0x3f, (byte) 0x80, 0, 0};
+        assertThrows(IllegalArgumentException.class, () -> VectorUtils.fromBinary(truncated));
+    }
+
+    @Test
+    public void testLittleEndianBytesRoundTrip() {
+        float[] original = {1.0f, -2.5f, 0.0f, Float.MIN_VALUE};
+        byte[] encoded = VectorUtils.toLittleEndianBytes(original);
+        assertEquals(16, encoded.length);
+        // 1.0f = 0x3f800000, lowest byte first
+        assertArrayEquals(new byte[] {0, 0, (byte) 0x80, 0x3f}, java.util.Arrays.copyOf(encoded, 4));
+        assertArrayEquals(original, VectorUtils.fromLittleEndianBytes(encoded));
+        assertThrows(IllegalArgumentException.class, () -> VectorUtils.fromLittleEndianBytes(new byte[5]));
+    }
 }
@@ -1,8 +1,8 @@
-import React, { useState, useEffect, useCallback } from 'react';
+import React, { useState, useEffect, useCallback, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
 import {
   Typography, Grid, Card, CardContent, CardActions, Button, TextField,
-  Box, Chip, MenuItem, FormControlLabel, Checkbox, Pagination, Stack,
+  Box, Chip, MenuItem, FormControlLabel, Checkbox, Stack,
   InputAdornment, useTheme, alpha, Collapse, Paper,
 } from '@mui/material';
 import { Search, FilterList, ArrowForward, ExpandMore, ExpandLess } from '@mui/icons-material';
@@ -17,7 +17,8 @@ export default function CatalogPage() {
   const { t } = useLanguage();
   const [projects, setProjects] = useState([]);
   const [total, setTotal] = useState(0);
-  const [page, setPage] = useState(0);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [searchInput, setSearchInput] = useState(''); // What user is typing
   const [q, setQ] = useState(''); // Actual search query sent to backend
   const [difficulty, setDifficulty] = useState('');
@@ -32,7 +33,6 @@ export default function CatalogPage() {
   useEffect(() => {
     const timer = setTimeout(() => {
       setQ(searchInput);
-      setPage(0);
     }, 500);
     return () => clearTimeout(timer);
   }, [searchInput]);
@@ -41,25 +41,62 @@ export default function CatalogPage() {
   const handleSearchKeyDown = (e) => {
     if (e.key === 'Enter') {
       setQ(searchInput);
-      setPage(0);
     }
   };
 
-  const fetchProjects = useCallback(async () => {
-    const params = new URLSearchParams({ page, size });
+  // Cursor pagination: each further page continues after the last loaded project, so scrolling deep costs the same
+  const requestId = useRef(0);
+  const sentinel = useRef(null);
+
+  const buildParams = useCallback((cursor) => {
+    const params = new URLSearchParams({ size, cursor });
     if (q) params.set('q', q);
     if (difficulty) params.set('difficulty', difficulty);
     if (thesis) params.set('thesis', 'true');
     if (practice) params.set('practice', 'true');
     if (coursework) params.set('coursework', 'true');
     if (tags) params.set('tags', tags);
-    const data = await api.get(`/api/projects?${params}`);
+    return params;
+  }, [q, difficulty, thesis, practice, coursework, tags]);
+
+  const fetchProjects = useCallback(async () => {
+    const id = ++requestId.current;
+    const data = await api.get(`/api/projects?${buildParams('')}`);
+    if (id !== requestId.current) return; // filters changed meanwhile
     setProjects(data.items);
     setTotal(data.total);
-  }, [page, q, difficulty, thesis, practice, coursework, tags]);
+    setNextCursor(data.nextCursor);
+  }, [buildParams]);
 
   useEffect(() => { fetchProjects(); }, [fetchProjects]);
 
+  const loadMore = useCallback(async () => {
+    if (!nextCursor || loadingMore) return;
+    const id = requestId.current;
+    setLoadingMore(true);
+    try {
+      const params = buildParams(nextCursor);
+      params.set('withTotal', 'false');
+      const data = await api.get(`/api/projects?${params}`);
+      if (id !== requestId.current) return;
+      setProjects(prev => [...prev, ...data.items]);
+      setNextCursor(data.nextCursor);
+    } finally {
+      setLoadingMore(false);
+    }
+  }, [nextCursor, loadingMore, buildParams]);
+
+  // Infinite scroll: load the next page when the end of the grid comes into view
+  useEffect(() => {
+    const node = sentinel.current;
+    if (!node || !nextCursor) return undefined;
+    const observer = new IntersectionObserver(entries => {
+      if (entries[0].isIntersecting) loadMore();
+    }, { rootMargin: '400px' });
+    observer.observe(node);
+    return () => observer.disconnect();
+  }, [nextCursor, loadMore]);
+
   const difficultyColor = (d) => {
     if (d === 'EASY') return 'success';
     if (d === 'HARD') return 'error';
@@ -142,7 +179,7 @@ export default function CatalogPage() {
               size="small"
               label={t('difficulty.difficulty')}
               value={difficulty}
-              onChange={e => { setDifficulty(e.target.value); setPage(0); }}
+              onChange={e => setDifficulty(e.target.value)}
               sx={{ minWidth: 140 }}
             >
               <MenuItem value="">{t('difficulty.allLevels')}</MenuItem>
@@ -157,14 +194,14 @@ export default function CatalogPage() {
               label={t('catalog.tags')}
               value={tags}
               placeholder={t('catalog.tagsPlaceholder')}
-              onChange={e => { setTags(e.target.value); setPage(0); }}
+              onChange={e => setTags(e.target.value)}
               sx={{ minWidth: 140 }}
             />
             <FormControlLabel
               control={
                 <Checkbox
                   checked={thesis}
-                  onChange={e => { setThesis(e.target.checked); setPage(0); }}
+                  onChange={e => setThesis(e.target.checked)}
                   color="secondary"
                 />
               }
@@ -174,7 +211,7 @@ export default function CatalogPage() {
               control={
                 <Checkbox
                   checked={practice}
-                  onChange={e => { setPractice(e.target.checked); setPage(0); }}
+                  onChange={e => setPractice(e.target.checked)}
                   color="secondary"
                 />
               }
@@ -184,7 +221,7 @@ export default function CatalogPage() {
               control={
                 <Checkbox
                   checked={coursework}
-                  onChange={e => { setCoursework(e.target.checked); setPage(0); }}
+                  onChange={e => setCoursework(e.target.checked)}
                   color="secondary"
                 />
               }
@@ -357,18 +394,12 @@ export default function CatalogPage() {
         </Paper>
       )}
 
-      {/* Pagination */}
-      {total > size && (
-        <Box display="flex" justifyContent="center" mt={4}>
-          <Pagination
-            count={Math.ceil(total / size)}
-            page={page + 1}
-            onChange={(_, v) => setPage(v - 1)}
-            color="primary"
-            size="large"
-            showFirstButton
-            showLastButton
-          />
+      {/* Infinite scroll */}
+      {nextCursor && (
+        <Box ref={sentinel} display="flex" justifyContent="center" mt={4}>
+          <Button variant="outlined" onClick={loadMore} disabled={loadingMore}>
+            {t('catalog.loadMore')}
+          </Button>
         </Box>
       )}
     </Box>
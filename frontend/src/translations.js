@@ -111,6 +111,7 @@ export const translations = {
       mentor: 'Mentor',
       viewDetails: 'View Details',
       noDescription: 'No description provided',
+      loadMore: 'Load more',
     },
 
     // Project Detail Page
@@ -361,6 +362,7 @@ export const translations = {
       mentor: 'Ментор',
       viewDetails: 'Подробнее',
       noDescription: 'Описание отсутствует',
+      loadMore: 'Показать ещё',
     },
 
     // Детали проекта